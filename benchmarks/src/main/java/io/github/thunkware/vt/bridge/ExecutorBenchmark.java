@@ -0,0 +1,95 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-task cost of the executors created by {@link ExecutorTool}, on both providers.
+ * Compare with JdkExecutorBenchmark (Java 21+) for the raw JDK executors.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ExecutorBenchmark {
+
+    static final int BATCH = 256;
+    static final int PERMITS = 64;
+
+    private static final Callable<Integer> TASK = () -> 42;
+
+    @Param({"virtualThreadPerTask", "semaphoreVirtual", "threadPerTask"})
+    public String executor;
+
+    private ExecutorService executorService;
+
+    @Setup
+    public void setUp(ProviderState providerState) {
+        ThreadProvider provider = providerState.threadProvider();
+        switch (executor) {
+            case "virtualThreadPerTask":
+                executorService = provider.newVirtualThreadPerTaskExecutor();
+                break;
+            case "semaphoreVirtual":
+                executorService = new SemaphoreExecutor(provider.newVirtualThreadPerTaskExecutor(), PERMITS);
+                break;
+            case "threadPerTask":
+                executorService = provider.newThreadPerTaskExecutor(provider.ofVirtual().factory());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor " + executor);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Latency of one task, from submit until the result is visible to the caller
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer submitToCompletion() throws Exception {
+        return executorService.submit(TASK).get();
+    }
+
+    /**
+     * Tasks per second when submitting a burst of {@link #BATCH} tasks and waiting for all of them
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public int burstThroughput() throws Exception {
+        @SuppressWarnings("unchecked")
+        Future<Integer>[] futures = new Future[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = executorService.submit(TASK);
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+}
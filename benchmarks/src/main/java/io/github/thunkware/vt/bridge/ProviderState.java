@@ -0,0 +1,30 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Selects the {@link ThreadProvider} under test.
+ * <ul>
+ * <li>java8: {@link ThreadProvider8}, i.e. the platform thread fallback, on any JVM</li>
+ * <li>runtime: the provider picked by {@link ThreadProviderFactory}, i.e. ThreadProvider21 on Java 21+</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+public class ProviderState {
+
+    @Param({"java8", "runtime"})
+    public String provider;
+
+    ThreadProvider threadProvider() {
+        switch (provider) {
+            case "java8":
+                return new ThreadProvider8();
+            case "runtime":
+                return ThreadProviderFactory.createThreadProvider();
+            default:
+                throw new IllegalArgumentException("Unknown provider " + provider);
+        }
+    }
+}
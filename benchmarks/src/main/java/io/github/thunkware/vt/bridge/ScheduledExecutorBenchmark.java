@@ -0,0 +1,83 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scheduling and cancelling a timeout while many others are pending, the typical life of a request timeout.
+ * Compares the timing wheel of {@link ExecutorTool#newVirtualScheduledExecutor()} with the delay heap of
+ * {@link ScheduledThreadPoolExecutor}, from one thread and from several threads sharing the executor, as request
+ * threads share a timeout scheduler.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScheduledExecutorBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Param({"wheel", "heap"})
+    public String executor;
+
+    @Param({"1000", "100000"})
+    public int pending;
+
+    private ScheduledExecutorService executorService;
+
+    @Setup
+    public void setUp() {
+        switch (executor) {
+            case "wheel":
+                executorService = ExecutorTool.newVirtualScheduledExecutor();
+                break;
+            case "heap":
+                ScheduledThreadPoolExecutor threadPool = new ScheduledThreadPoolExecutor(1);
+                threadPool.setRemoveOnCancelPolicy(true);
+                executorService = threadPool;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown executor " + executor);
+        }
+        for (int i = 0; i < pending; i++) {
+            executorService.schedule(NOOP, 1 + i % 3600, TimeUnit.SECONDS);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean scheduleAndCancel() {
+        ScheduledFuture<?> future = executorService.schedule(NOOP, 30, TimeUnit.SECONDS);
+        return future.cancel(false);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean scheduleAndCancelContended() {
+        ScheduledFuture<?> future = executorService.schedule(NOOP, 30, TimeUnit.SECONDS);
+        return future.cancel(false);
+    }
+}
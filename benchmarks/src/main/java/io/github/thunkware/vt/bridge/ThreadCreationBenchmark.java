@@ -0,0 +1,66 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread creation cost through {@link ThreadProvider}, on both providers.
+ * Compare with JdkThreadCreationBenchmark (Java 21+) for the raw JDK APIs.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadCreationBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    private ThreadProvider provider;
+    private ThreadFactory factory;
+
+    @Setup
+    public void setUp(ProviderState providerState) {
+        provider = providerState.threadProvider();
+        factory = provider.ofVirtual().factory();
+    }
+
+    /**
+     * Start a thread and wait for it to finish
+     */
+    @Benchmark
+    public Thread startVirtualThread() throws InterruptedException {
+        Thread thread = provider.startVirtualThread(NOOP);
+        thread.join();
+        return thread;
+    }
+
+    /**
+     * Create a builder and a factory from it
+     */
+    @Benchmark
+    public ThreadFactory ofVirtualFactory() {
+        return provider.ofVirtual().factory();
+    }
+
+    /**
+     * Create an unstarted thread from an existing factory
+     */
+    @Benchmark
+    public Thread ofVirtualFactoryNewThread() {
+        return factory.newThread(NOOP);
+    }
+}
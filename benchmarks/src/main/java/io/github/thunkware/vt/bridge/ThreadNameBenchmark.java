@@ -0,0 +1,56 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link ThreadNameRunnable} per task: renaming the thread, or recording the name as its {@link TaskTag}
+ * with {@code renameThread} false. Runs in the platform threads of JMH, where a rename also renames the OS thread.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadNameBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    @Param({"true", "false"})
+    public boolean renameThread;
+
+    private Runnable task;
+
+    @Setup
+    public void setUp() {
+        task = new ThreadNameRunnable("request-42", NOOP, renameThread);
+    }
+
+    @Benchmark
+    public void run() {
+        task.run();
+    }
+
+    /**
+     * Several threads tagging at once share the registry of tags
+     */
+    @Benchmark
+    @Threads(4)
+    public void runContended() {
+        task.run();
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the static {@link ThreadTool} entry points, which resolve the shared provider on every call.
+ * Compare with JdkThreadToolBenchmark (Java 21+) for the direct JDK calls.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ThreadToolBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    /**
+     * Single threaded, as in a logging call
+     */
+    @Benchmark
+    public boolean isVirtual() {
+        return ThreadTool.isVirtual();
+    }
+
+    /**
+     * Contended: a lock on the lookup path shows up here
+     */
+    @Benchmark
+    @Threads(4)
+    public boolean isVirtualContended() {
+        return ThreadTool.isVirtual();
+    }
+
+    @Benchmark
+    public Thread startVirtualThread() throws InterruptedException {
+        Thread thread = ThreadTool.startVirtualThread(NOOP);
+        thread.join();
+        return thread;
+    }
+}
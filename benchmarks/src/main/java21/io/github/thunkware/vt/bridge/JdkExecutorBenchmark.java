@@ -0,0 +1,94 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.thunkware.vt.bridge.ExecutorBenchmark.BATCH;
+import static io.github.thunkware.vt.bridge.ExecutorBenchmark.PERMITS;
+
+/**
+ * Baseline for {@link ExecutorBenchmark}: the same workload on the raw JDK 21 executors
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JdkExecutorBenchmark {
+
+    @Param({"virtualThreadPerTask", "semaphoreVirtual", "threadPerTask"})
+    public String executor;
+
+    private ExecutorService executorService;
+    private Callable<Integer> task;
+
+    @Setup
+    public void setUp() {
+        task = () -> 42;
+        switch (executor) {
+            case "virtualThreadPerTask" -> executorService = Executors.newVirtualThreadPerTaskExecutor();
+            case "semaphoreVirtual" -> {
+                // hand-written equivalent of SemaphoreExecutor
+                Semaphore semaphore = new Semaphore(PERMITS, true);
+                executorService = Executors.newVirtualThreadPerTaskExecutor();
+                task = () -> {
+                    semaphore.acquire();
+                    try {
+                        return 42;
+                    } finally {
+                        semaphore.release();
+                    }
+                };
+            }
+            case "threadPerTask" -> executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().factory());
+            default -> throw new IllegalArgumentException("Unknown executor " + executor);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        executorService.shutdown();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Integer submitToCompletion() throws Exception {
+        return executorService.submit(task).get();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(BATCH)
+    public int burstThroughput() throws Exception {
+        @SuppressWarnings("unchecked")
+        Future<Integer>[] futures = new Future[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            futures[i] = executorService.submit(task);
+        }
+        int sum = 0;
+        for (Future<Integer> future : futures) {
+            sum += future.get();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.thunkware.vt.bridge;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Baseline for {@link ThreadCreationBenchmark}: the same operations on the raw JDK 21 APIs
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JdkThreadCreationBenchmark {
+
+    private static final Runnable NOOP = () -> {
+    };
+
+    private final ThreadFactory factory = Thread.ofVirtual().factory();
+
+    @Benchmark
+    public Thread startVirtualThread() throws InterruptedException {
+        Thread thread = Thread.startVirtualThread(NOOP);
+        thread.join();
+        return thread;
+    }
+
+    @Benchmark
+    public ThreadFactory ofVirtualFactory() {
+        return Thread.ofVirtual().factory();
+    }
+
+    @Benchmark
+    public Thread ofVirtualFactoryNewThread() {
+        return factory.newThread(NOOP);
+    }
+}
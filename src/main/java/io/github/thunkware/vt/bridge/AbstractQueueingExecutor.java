@@ -0,0 +1,224 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Base class for executors that admit tasks to a delegate executor only when a permit is available.
+ * Tasks that cannot get a permit wait in a lock-free queue, without a thread.
+ *
+ * <p>
+ * {@link #execute(Runnable)} rejects tasks once this executor or its delegate is shut down. A queued task that the
+ * delegate still fails to accept later is cancelled if it is a {@link Future}, and otherwise reported to the
+ * uncaught exception handler of the thread that handed it over, as its submitter already returned.
+ */
+abstract class AbstractQueueingExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final ExecutorMetrics metrics;
+    private final Queue<QueuedTask> queue = new ConcurrentLinkedQueue<>();
+
+    // tasks queued or being handed to the delegate. The delegate is shut down when this drops to zero after shutdown
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CountDownLatch delegateShutdown = new CountDownLatch(1);
+    private volatile boolean isShutdown;
+
+    AbstractQueueingExecutor(ExecutorService delegate, ExecutorMetrics metrics) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Exposes the available permits of the subclass to the metrics, if any
+     */
+    final void bindAvailablePermits(IntSupplier availablePermits) {
+        if (metrics != null) {
+            metrics.bindAvailablePermits(availablePermits);
+        }
+    }
+
+    /**
+     * Non-blocking attempt to take a permit for one task
+     */
+    abstract boolean tryAcquirePermit();
+
+    /**
+     * Returns the permit taken by {@link #tryAcquirePermit()}
+     */
+    abstract void releasePermit();
+
+    /**
+     * Returns a permit that was taken by {@link #tryAcquirePermit()} but not used to run a task
+     */
+    void returnUnusedPermit() {
+        releasePermit();
+    }
+
+    /**
+     * Runs an admitted task on a delegate thread. Subclasses can override to observe the task.
+     */
+    void runTask(Runnable command) {
+        command.run();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command);
+        pending.incrementAndGet();
+        if (isShutdown || delegate.isShutdown()) {
+            onDispatched();
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        long submittedNanos = MetricsSupport.onSubmitted(metrics);
+        queue.offer(new QueuedTask(ScopedContext.wrap(command), submittedNanos));
+        dispatch();
+    }
+
+    // Called after a task is queued and after a permit is released. Either the caller gets a permit
+    // or the permit holder sees the queued task when it releases, so no task is left behind.
+    final void dispatch() {
+        while (!queue.isEmpty() && tryAcquirePermit()) {
+            QueuedTask task = queue.poll();
+            if (task == null) {
+                returnUnusedPermit();
+                continue;
+            }
+
+            boolean handedOver = false;
+            try {
+                ScopedContext.executeUnbound(delegate, task);
+                handedOver = true;
+            } catch (RuntimeException e) {
+                onNotHandedOver(ScopedContext.unwrap(task.command), e);
+            } finally {
+                if (!handedOver) {
+                    returnUnusedPermit();
+                }
+                onDispatched();
+            }
+        }
+    }
+
+    private void runObserved(Runnable command, long submittedNanos) {
+        long startNanos = MetricsSupport.onStarted(metrics, submittedNanos);
+        try {
+            runTask(command);
+        } catch (RuntimeException | Error e) {
+            MetricsSupport.onFailed(metrics, startNanos, e);
+            throw e;
+        }
+        MetricsSupport.onFinished(metrics, startNanos, command);
+    }
+
+    private void onDispatched() {
+        if (pending.decrementAndGet() == 0 && isShutdown) {
+            shutdownDelegate();
+        }
+    }
+
+    private void shutdownDelegate() {
+        delegate.shutdown();
+        delegateShutdown.countDown();
+    }
+
+    private static void onNotHandedOver(Runnable command, RuntimeException e) {
+        if (command instanceof Future) {
+            ((Future<?>) command).cancel(false);
+        } else {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        if (pending.get() == 0) {
+            shutdownDelegate();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        List<Runnable> tasks = new ArrayList<>();
+        QueuedTask task;
+        while ((task = queue.poll()) != null) {
+            tasks.add(ScopedContext.unwrap(task.command));
+            pending.decrementAndGet();
+        }
+        tasks.addAll(delegate.shutdownNow());
+        delegateShutdown.countDown();
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegateShutdown.getCount() == 0 && delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!delegateShutdown.await(timeout, unit)) {
+            return false;
+        }
+        return delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return new MetricsSupport.ObservedTask<>(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return new MetricsSupport.ObservedTask<>(callable);
+    }
+
+    // a queued task, which is also the task handed to the delegate, so queueing allocates one object per task
+    private final class QueuedTask implements Runnable, Consumer<Runnable> {
+        private final Runnable command;
+        private final long submittedNanos;
+
+        QueuedTask(Runnable command, long submittedNanos) {
+            this.command = command;
+            this.submittedNanos = submittedNanos;
+        }
+
+        @Override
+        public void run() {
+            try {
+                ScopedContext.run(command, this);
+            } finally {
+                releasePermit();
+                dispatch();
+            }
+        }
+
+        // runs the unwrapped command with its ScopedContext bindings
+        @Override
+        public void accept(Runnable command) {
+            runObserved(command, submittedNanos);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that limits concurrency like {@link QueueingSemaphoreExecutor}, but the number of permits is adjusted
+ * at runtime by a {@link ConcurrencyLimit} from the observed run time of the tasks.
+ * Tasks that exceed the current limit wait in a queue, without a thread.
+ *
+ * @since 0.0.11
+ */
+public final class AdaptiveSemaphoreExecutor extends AbstractQueueingExecutor {
+
+    private final ConcurrencyLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveSemaphoreExecutor(ExecutorService delegate, ConcurrencyLimit limit) {
+        this(delegate, limit, MetricsSupport.defaultMetrics());
+    }
+
+    public AdaptiveSemaphoreExecutor(ExecutorService delegate, ConcurrencyLimit limit, ExecutorMetrics metrics) {
+        super(delegate, metrics);
+        this.limit = Objects.requireNonNull(limit);
+        bindAvailablePermits(() -> Math.max(0, limit.getLimit() - inFlight.get()));
+    }
+
+    @Override
+    boolean tryAcquirePermit() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    void releasePermit() {
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    void runTask(Runnable command) {
+        int inFlightAtStart = inFlight.get();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            command.run();
+            failed = MetricsSupport.failureOf(command) != null;
+        } finally {
+            limit.onSample(System.nanoTime() - start, inFlightAtStart, failed);
+        }
+    }
+
+    /**
+     * @return current concurrency limit
+     */
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    /**
+     * @return number of tasks currently running
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
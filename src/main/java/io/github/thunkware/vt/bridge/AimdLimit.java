@@ -0,0 +1,41 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+class AimdLimit implements ConcurrencyLimit {
+
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final int maxLimit;
+    private final long timeoutNanos;
+    private final AtomicInteger limit;
+
+    AimdLimit(int initialLimit, int maxLimit, long timeoutNanos) {
+        LimitSupport.checkLimits(initialLimit, maxLimit);
+        if (timeoutNanos <= 0) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+        this.maxLimit = maxLimit;
+        this.timeoutNanos = timeoutNanos;
+        this.limit = new AtomicInteger(initialLimit);
+    }
+
+    @Override
+    public int getLimit() {
+        return limit.get();
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        limit.updateAndGet(current -> {
+            if (dropped || rttNanos > timeoutNanos) {
+                return Math.max(1, (int) (current * BACKOFF_RATIO));
+            }
+            // only grow while the limit is actually being used
+            if (inFlight * 2 >= current) {
+                return Math.min(maxLimit, current + 1);
+            }
+            return current;
+        });
+    }
+}
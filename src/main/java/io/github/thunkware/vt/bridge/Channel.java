@@ -0,0 +1,481 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer, multi-consumer channel that passes elements between threads, e.g. between the stages of a pipeline
+ * that run in virtual threads, with the same API on Java 8+.
+ *
+ * <p>
+ * The elements are kept in a lock-free queue and counted with a CAS, so that producers and consumers do not contend
+ * on a single lock as with {@link java.util.concurrent.ArrayBlockingQueue}. Threads that wait for an element, or for
+ * room in a bounded channel, park with {@link LockSupport}, which does not pin virtual threads, and each send or
+ * receive wakes at most one of them.
+ *
+ * <p>
+ * {@link #close()} stops the sends. Receivers still get the elements sent before, and then a
+ * {@link ChannelClosedException}. {@link #select(Channel[])} receives from whichever of several channels has an
+ * element first:
+ * <pre>{@code
+ * Channel<Order> orders = Channel.newChannel(100);
+ * executor.submit(() -> {
+ *     try (Channel<Order> out = orders) {
+ *         for (Order order : source) {
+ *             out.send(order);
+ *         }
+ *     }
+ *     return null;
+ * });
+ * try {
+ *     while (true) {
+ *         process(orders.receive());
+ *     }
+ * } catch (ChannelClosedException e) {
+ *     // all orders processed
+ * }
+ * }</pre>
+ *
+ * @param <E> type of the elements, which must not be null
+ * @since 0.0.11
+ */
+public final class Channel<E> implements AutoCloseable {
+
+    private static final long CLOSED = 1L << 62;
+    private static final long COUNT_MASK = CLOSED - 1;
+    private static final int WAITING = 0;
+    private static final int NOTIFIED = 1;
+    private static final int CANCELLED = 2;
+
+    private static final AtomicIntegerFieldUpdater<Waiter> WAITER_STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Waiter.class, "state");
+
+    private final long capacity;
+    private final Queue<E> elements = new ConcurrentLinkedQueue<>();
+    // number of elements, including the ones being added, next to the closed bit
+    private final AtomicLong ctl = new AtomicLong();
+    private final Queue<Waiter> receivers = new ConcurrentLinkedQueue<>();
+    private final Queue<Waiter> senders = new ConcurrentLinkedQueue<>();
+
+    private Channel(long capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @param capacity maximum number of elements sent and not yet received
+     * @param <E>      type of the elements
+     * @return a new bounded Channel, whose senders wait while it is full
+     */
+    public static <E> Channel<E> newChannel(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        return new Channel<>(capacity);
+    }
+
+    /**
+     * @param <E> type of the elements
+     * @return a new unbounded Channel, whose senders never wait
+     */
+    public static <E> Channel<E> newUnboundedChannel() {
+        return new Channel<>(COUNT_MASK);
+    }
+
+    /**
+     * Sends an element, waiting for room if the channel is full
+     *
+     * @param element element to send
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws ChannelClosedException if the channel is closed
+     */
+    public void send(E element) throws InterruptedException {
+        send(element, false, 0L);
+    }
+
+    /**
+     * Sends an element, waiting for room if the channel is full, up to a timeout
+     *
+     * @param element element to send
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return true if sent, false if the timeout elapsed
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws ChannelClosedException if the channel is closed
+     */
+    public boolean send(E element, long timeout, TimeUnit unit) throws InterruptedException {
+        return send(element, true, unit.toNanos(timeout));
+    }
+
+    /**
+     * Sends an element if the channel is not full
+     *
+     * @param element element to send
+     * @return true if sent, false if the channel is full
+     * @throws ChannelClosedException if the channel is closed
+     */
+    public boolean trySend(E element) {
+        Objects.requireNonNull(element, "element is required");
+        if (!tryReserve()) {
+            return false;
+        }
+        add(element);
+        return true;
+    }
+
+    private boolean send(E element, boolean timed, long nanos) throws InterruptedException {
+        Objects.requireNonNull(element, "element is required");
+        long deadline = System.nanoTime() + nanos;
+        while (!tryReserve()) {
+            if (timed && deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            Waiter waiter = new Waiter();
+            senders.offer(waiter);
+            try {
+                // a receiver that made room before the offer did not see the waiter
+                if (isFull()) {
+                    await(waiter, timed, deadline);
+                }
+            } catch (InterruptedException e) {
+                leave(waiter, senders, true);
+                throw e;
+            }
+            leave(waiter, senders, false);
+        }
+        add(element);
+        return true;
+    }
+
+    private boolean tryReserve() {
+        long state;
+        do {
+            state = ctl.get();
+            if ((state & CLOSED) != 0) {
+                throw new ChannelClosedException("Channel is closed");
+            }
+            if ((state & COUNT_MASK) >= capacity) {
+                return false;
+            }
+        } while (!ctl.compareAndSet(state, state + 1));
+        return true;
+    }
+
+    private boolean isFull() {
+        long state = ctl.get();
+        return (state & CLOSED) == 0 && (state & COUNT_MASK) >= capacity;
+    }
+
+    private void add(E element) {
+        elements.offer(element);
+        signal(receivers);
+    }
+
+    /**
+     * Receives an element, waiting for one if the channel is empty
+     *
+     * @return element received
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws ChannelClosedException if the channel is closed and all its elements were received
+     */
+    public E receive() throws InterruptedException {
+        E element = tryReceive();
+        return element != null ? element : receive(self(), false, 0L).getValue();
+    }
+
+    /**
+     * Receives an element, waiting for one if the channel is empty, up to a timeout
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return element received, or null if the timeout elapsed
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws ChannelClosedException if the channel is closed and all its elements were received
+     */
+    public E receive(long timeout, TimeUnit unit) throws InterruptedException {
+        E element = tryReceive();
+        if (element != null) {
+            return element;
+        }
+        Selected<E> selected = receive(self(), true, unit.toNanos(timeout));
+        return selected != null ? selected.getValue() : null;
+    }
+
+    /**
+     * Receives an element if the channel is not empty
+     *
+     * @return element received, or null if the channel is empty
+     * @throws ChannelClosedException if the channel is closed and all its elements were received
+     */
+    public E tryReceive() {
+        // read before the poll: a closed channel without elements stays empty
+        long state = ctl.get();
+        E element = elements.poll();
+        if (element != null) {
+            onReceived();
+            return element;
+        }
+        if (state == CLOSED) {
+            throw new ChannelClosedException("Channel is closed");
+        }
+        return null;
+    }
+
+    private void onReceived() {
+        if (ctl.decrementAndGet() == CLOSED) {
+            // the receivers waiting for an element being added must see that there will be none
+            signalAll(receivers);
+        } else {
+            signal(senders);
+        }
+    }
+
+    private List<Channel<? extends E>> self() {
+        return Collections.singletonList(this);
+    }
+
+    /**
+     * Receives an element from the first of several channels that has one, waiting if they are all empty. Closed
+     * channels without elements are skipped.
+     *
+     * @param channels channels to receive from
+     * @param <E>      type of the elements
+     * @return element received, with its channel
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws ChannelClosedException if all channels are closed and all their elements were received
+     */
+    @SafeVarargs
+    public static <E> Selected<E> select(Channel<? extends E>... channels) throws InterruptedException {
+        // copied element by element, so that the varargs array does not escape
+        List<Channel<? extends E>> selected = new ArrayList<>(channels.length);
+        for (Channel<? extends E> channel : channels) {
+            selected.add(channel);
+        }
+        return receive(checkChannels(selected), false, 0L);
+    }
+
+    /**
+     * Receives an element from the first of several channels that has one, waiting if they are all empty, up to a
+     * timeout. Closed channels without elements are skipped.
+     *
+     * @param timeout  maximum time to wait
+     * @param unit     unit of the timeout
+     * @param channels channels to receive from
+     * @param <E>      type of the elements
+     * @return element received, with its channel, or null if the timeout elapsed
+     * @throws InterruptedException   if interrupted while waiting
+     * @throws ChannelClosedException if all channels are closed and all their elements were received
+     */
+    @SafeVarargs
+    public static <E> Selected<E> select(long timeout, TimeUnit unit, Channel<? extends E>... channels)
+            throws InterruptedException {
+        List<Channel<? extends E>> selected = new ArrayList<>(channels.length);
+        for (Channel<? extends E> channel : channels) {
+            selected.add(channel);
+        }
+        return receive(checkChannels(selected), true, unit.toNanos(timeout));
+    }
+
+    private static <E> List<Channel<? extends E>> checkChannels(List<Channel<? extends E>> channels) {
+        if (channels.isEmpty()) {
+            throw new IllegalArgumentException("channels are required");
+        }
+        for (Channel<? extends E> channel : channels) {
+            Objects.requireNonNull(channel, "channel is required");
+        }
+        return channels;
+    }
+
+    private static <E> Selected<E> receive(List<Channel<? extends E>> channels, boolean timed, long nanos)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        Selected<E> selected;
+        while ((selected = tryReceive(channels)) == null) {
+            if (timed && deadline - System.nanoTime() <= 0) {
+                return null;
+            }
+            Waiter waiter = new Waiter();
+            for (Channel<?> channel : channels) {
+                channel.receivers.offer(waiter);
+            }
+            try {
+                // a sender that added an element before the offers did not see the waiter
+                if (isEmpty(channels)) {
+                    await(waiter, timed, deadline);
+                }
+            } catch (InterruptedException e) {
+                leave(waiter, channels, true);
+                throw e;
+            }
+            // a selector may be woken by one channel and receive from another
+            leave(waiter, channels, channels.size() > 1);
+        }
+        return selected;
+    }
+
+    private static <E> Selected<E> tryReceive(List<Channel<? extends E>> channels) {
+        int count = channels.size();
+        // a random first channel, so that a busy channel does not starve the others
+        int first = count == 1 ? 0 : ThreadLocalRandom.current().nextInt(count);
+        boolean open = false;
+        for (int i = 0; i < count; i++) {
+            Channel<? extends E> channel = channels.get((first + i) % count);
+            long state = channel.ctl.get();
+            E element = channel.elements.poll();
+            if (element != null) {
+                channel.onReceived();
+                return new Selected<>(channel, element);
+            }
+            open |= state != CLOSED;
+        }
+        if (!open) {
+            throw new ChannelClosedException("Channel is closed");
+        }
+        return null;
+    }
+
+    private static boolean isEmpty(List<? extends Channel<?>> channels) {
+        boolean open = false;
+        for (Channel<?> channel : channels) {
+            if (!channel.elements.isEmpty()) {
+                return false;
+            }
+            open |= channel.ctl.get() != CLOSED;
+        }
+        return open;
+    }
+
+    /**
+     * Closes the channel: sends fail from now on, and receives fail once all elements were received. Does nothing
+     * if already closed.
+     */
+    @Override
+    public void close() {
+        long state = ctl.getAndUpdate(current -> current | CLOSED);
+        if ((state & CLOSED) == 0) {
+            signalAll(senders);
+            signalAll(receivers);
+        }
+    }
+
+    /**
+     * @return true if {@link #close()} was called
+     */
+    public boolean isClosed() {
+        return (ctl.get() & CLOSED) != 0;
+    }
+
+    /**
+     * @return number of elements sent and not yet received
+     */
+    public int size() {
+        return (int) Math.min(Integer.MAX_VALUE, ctl.get() & COUNT_MASK);
+    }
+
+    private static void await(Waiter waiter, boolean timed, long deadline) throws InterruptedException {
+        while (waiter.state == WAITING) {
+            if (timed) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                LockSupport.parkNanos(waiter, remaining);
+            } else {
+                LockSupport.park(waiter);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    // a waiter notified while it was leaving passes the notification on, if it will not use it
+    private static void leave(Waiter waiter, Queue<Waiter> waiters, boolean passOn) {
+        if (WAITER_STATE.compareAndSet(waiter, WAITING, CANCELLED)) {
+            waiters.remove(waiter);
+        } else if (passOn) {
+            signal(waiters);
+        }
+    }
+
+    private static void leave(Waiter waiter, List<? extends Channel<?>> channels, boolean passOn) {
+        if (channels.size() == 1) {
+            Channel<?> channel = channels.get(0);
+            leave(waiter, channel.receivers, passOn);
+            return;
+        }
+        boolean cancelled = WAITER_STATE.compareAndSet(waiter, WAITING, CANCELLED);
+        for (Channel<?> channel : channels) {
+            // the channels that did not notify a selector still have it in their queues
+            channel.receivers.remove(waiter);
+            if (!cancelled && passOn && !channel.elements.isEmpty()) {
+                signal(channel.receivers);
+            }
+        }
+    }
+
+    private static void signal(Queue<Waiter> waiters) {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            // a selector already notified by another channel, or a waiter that left, is skipped
+            if (WAITER_STATE.compareAndSet(waiter, WAITING, NOTIFIED)) {
+                LockSupport.unpark(waiter.thread);
+                return;
+            }
+        }
+    }
+
+    private static void signalAll(Queue<Waiter> waiters) {
+        Waiter waiter;
+        while ((waiter = waiters.poll()) != null) {
+            if (WAITER_STATE.compareAndSet(waiter, WAITING, NOTIFIED)) {
+                LockSupport.unpark(waiter.thread);
+            }
+        }
+    }
+
+    // thread parked on one or more channels, notified at most once
+    private static final class Waiter {
+        private final Thread thread = Thread.currentThread();
+        // not private, for the field updater of the enclosing class on Java 8
+        volatile int state;
+    }
+
+    /**
+     * Element received by {@link #select(Channel[])}, with its channel
+     *
+     * @param <E> type of the element
+     */
+    public static final class Selected<E> {
+
+        private final Channel<? extends E> channel;
+        private final E value;
+
+        private Selected(Channel<? extends E> channel, E value) {
+            this.channel = channel;
+            this.value = value;
+        }
+
+        /**
+         * @return channel the element was received from
+         */
+        public Channel<? extends E> getChannel() {
+            return channel;
+        }
+
+        /**
+         * @return element received
+         */
+        public E getValue() {
+            return value;
+        }
+    }
+}
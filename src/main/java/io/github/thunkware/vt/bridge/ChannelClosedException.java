@@ -0,0 +1,20 @@
+package io.github.thunkware.vt.bridge;
+
+/**
+ * Exception thrown when sending to a closed {@link Channel}, or receiving from a closed channel that has no element
+ * left
+ *
+ * @since 0.0.11
+ */
+public class ChannelClosedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 5172319853546470120L;
+
+    public ChannelClosedException() {
+        super();
+    }
+
+    public ChannelClosedException(String message) {
+        super(message);
+    }
+}
@@ -16,4 +16,31 @@ public enum CompatibilityPolicy {
      * e.g. Attempting to create virtual thread on Java8+ VM will throw exception.
      */
     THROW_EXCEPTION,
+
+    /**
+     * If Java21 feature is accessed on Java8+ VM, then run the task in a shared, bounded pool of reused platform
+     * threads, configured by {@link ThreadProviderConfig#setPlatformPoolConfig(PlatformPoolConfig)}.
+     * Applies to {@link ThreadFeature#NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR}; other features are handled as
+     * {@link #BEST_EFFORT}.
+     * <p>
+     * In particular {@link ThreadFeature#START_VIRTUAL_THREAD} and {@link ThreadFeature#UNSTARTED_VIRTUAL_THREAD}
+     * still return a new platform thread: a {@link Thread} run by a pool would never be alive itself, and
+     * {@link Thread#join()} would return before its task ends. Submit the tasks to an executor from
+     * {@link ExecutorTool#newVirtualThreadPerTaskExecutor()} to run them in the pool.
+     *
+     * @since 0.0.11
+     */
+    BOUNDED_PLATFORM_POOL,
+
+    /**
+     * Like {@link #BOUNDED_PLATFORM_POOL}, so for {@link ThreadFeature#NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR} only,
+     * but the tasks run in a shared work-stealing
+     * {@link java.util.concurrent.ForkJoinPool} with one thread per CPU. Blocking calls wrapped by
+     * {@link ThreadTool#block(ManagedBlocking.BlockingCall)} or by the adapters of {@link ManagedBlocking} let the pool
+     * add a thread while they block, so mixed compute and I/O tasks need few threads. Tasks that block without them
+     * hold a pool thread and can starve the pool.
+     *
+     * @since 0.0.11
+     */
+    WORK_STEALING_POOL,
 }
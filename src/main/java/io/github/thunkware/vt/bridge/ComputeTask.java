@@ -0,0 +1,15 @@
+package io.github.thunkware.vt.bridge;
+
+/**
+ * Marks a {@link Runnable} or {@link java.util.concurrent.Callable} as CPU-bound, so that a {@link HybridExecutor}
+ * runs it in its compute pool instead of a thread for blocking work:
+ * <pre>{@code
+ * class ResizeImage implements Runnable, ComputeTask {
+ *     ...
+ * }
+ * }</pre>
+ *
+ * @since 0.0.11
+ */
+public interface ComputeTask {
+}
@@ -0,0 +1,64 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+
+/**
+ * Algorithm that adjusts a concurrency limit from observed task latency, see {@link AdaptiveSemaphoreExecutor}.
+ * <p>
+ * Implementations must be thread-safe: samples are reported by the threads that run the tasks.
+ *
+ * @since 0.0.11
+ */
+public interface ConcurrencyLimit {
+
+    /**
+     * @return current concurrency limit, at least 1
+     */
+    int getLimit();
+
+    /**
+     * Reports a completed task
+     *
+     * @param rttNanos time the task took to run
+     * @param inFlight number of tasks running when the task started, including the task
+     * @param dropped  true if the task failed
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+
+    /**
+     * Creates an additive-increase/multiplicative-decrease limit. The limit grows by one for every task that completes
+     * within the timeout while the executor is busy, and shrinks by 10% when a task fails or exceeds the timeout.
+     *
+     * @param initialLimit initial limit
+     * @param maxLimit     maximum limit
+     * @param timeout      run time above which a task counts as a sign of overload
+     * @return ConcurrencyLimit
+     */
+    static ConcurrencyLimit aimd(int initialLimit, int maxLimit, Duration timeout) {
+        return new AimdLimit(initialLimit, maxLimit, timeout.toNanos());
+    }
+
+    /**
+     * Creates a limit based on TCP Vegas. The minimum observed run time is taken as the no-load latency and the limit
+     * is adjusted to keep the estimated queue, {@code limit * (1 - noLoadRtt / rtt)}, small.
+     *
+     * @param initialLimit initial limit
+     * @param maxLimit     maximum limit
+     * @return ConcurrencyLimit
+     */
+    static ConcurrencyLimit vegas(int initialLimit, int maxLimit) {
+        return new VegasLimit(initialLimit, maxLimit);
+    }
+
+    /**
+     * Creates a gradient limit. The limit follows the ratio of the long-term average run time to the latest run time,
+     * so it shrinks as soon as latency rises above its usual level and grows back when latency recovers.
+     *
+     * @param initialLimit initial limit
+     * @param maxLimit     maximum limit
+     * @return ConcurrencyLimit
+     */
+    static ConcurrencyLimit gradient(int initialLimit, int maxLimit) {
+        return new GradientLimit(initialLimit, maxLimit);
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Receives the lifecycle of the tasks of an executor, to monitor its saturation.
+ *
+ * <p>
+ * Supported by {@link SemaphoreExecutor}, {@link QueueingSemaphoreExecutor}, {@link AdaptiveSemaphoreExecutor},
+ * {@link RateLimitedExecutor} and {@link KeyedSemaphoreExecutor}. Pass an instance to their constructor, or set a
+ * default for all of them with {@link ThreadProviderConfig#setExecutorMetrics(ExecutorMetrics)}.
+ * The executors report from their existing task objects, so metrics add no allocation per task, and when no
+ * metrics are set they skip the reporting, including the clock reads, entirely.
+ *
+ * <p>
+ * Methods are called on the submitting and on the running threads concurrently, so implementations must be
+ * thread-safe and fast. {@link ExecutorStats} and {@link TaskInventory} are ready-made implementations.
+ *
+ * @since 0.0.11
+ */
+public interface ExecutorMetrics {
+
+    /**
+     * A task was accepted by the executor
+     */
+    void onSubmitted();
+
+    /**
+     * A task started to run
+     *
+     * @param queueNanos time the task waited for a permit, from submission until it started
+     */
+    void onStarted(long queueNanos);
+
+    /**
+     * A task completed normally
+     *
+     * @param runNanos run time of the task
+     */
+    void onCompleted(long runNanos);
+
+    /**
+     * A task failed with an exception
+     *
+     * @param runNanos run time of the task
+     * @param failure  exception thrown by the task
+     */
+    void onFailed(long runNanos, Throwable failure);
+
+    /**
+     * Called once by an executor that limits concurrency when it starts reporting to this instance
+     *
+     * @param availablePermits current number of permits the executor has available
+     */
+    default void bindAvailablePermits(IntSupplier availablePermits) {
+    }
+}
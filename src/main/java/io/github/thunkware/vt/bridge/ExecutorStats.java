@@ -0,0 +1,128 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * {@link ExecutorMetrics} that keeps counters and total times in {@link LongAdder}s, so reporting from many threads
+ * does not contend.
+ *
+ * <p>
+ * An instance shared by several executors sums their counters. Its {@link #getAvailablePermits()} reports the
+ * executor that bound it last.
+ *
+ * @since 0.0.11
+ */
+public class ExecutorStats implements ExecutorMetrics {
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private volatile IntSupplier availablePermits = () -> -1;
+
+    @Override
+    public void onSubmitted() {
+        submitted.increment();
+    }
+
+    @Override
+    public void onStarted(long queueNanos) {
+        started.increment();
+        this.queueNanos.add(queueNanos);
+    }
+
+    @Override
+    public void onCompleted(long runNanos) {
+        completed.increment();
+        this.runNanos.add(runNanos);
+    }
+
+    @Override
+    public void onFailed(long runNanos, Throwable failure) {
+        failed.increment();
+        this.runNanos.add(runNanos);
+    }
+
+    @Override
+    public void bindAvailablePermits(IntSupplier availablePermits) {
+        this.availablePermits = Objects.requireNonNull(availablePermits);
+    }
+
+    /**
+     * @return number of tasks accepted
+     */
+    public long getSubmitted() {
+        return submitted.sum();
+    }
+
+    /**
+     * @return number of tasks started
+     */
+    public long getStarted() {
+        return started.sum();
+    }
+
+    /**
+     * @return number of tasks completed normally
+     */
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    /**
+     * @return number of tasks failed with an exception
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return number of tasks accepted and not started yet
+     */
+    public long getQueued() {
+        return Math.max(0, submitted.sum() - started.sum());
+    }
+
+    /**
+     * @return number of tasks running
+     */
+    public long getInFlight() {
+        // finished is read first: a task that finishes between the reads is counted as running, never negative
+        long finished = completed.sum() + failed.sum();
+        return Math.max(0, started.sum() - finished);
+    }
+
+    /**
+     * @return permits available in the bound executor, or -1 if no executor that limits concurrency is bound
+     */
+    public int getAvailablePermits() {
+        return availablePermits.getAsInt();
+    }
+
+    /**
+     * @return total time started tasks waited in the queue
+     */
+    public Duration getTotalQueueTime() {
+        return Duration.ofNanos(queueNanos.sum());
+    }
+
+    /**
+     * @return total run time of finished tasks
+     */
+    public Duration getTotalRunTime() {
+        return Duration.ofNanos(runNanos.sum());
+    }
+
+    @Override
+    public String toString() {
+        return "ExecutorStats[submitted=" + getSubmitted() + ", started=" + getStarted()
+                + ", completed=" + getCompleted() + ", failed=" + getFailed() + ", inFlight=" + getInFlight()
+                + ", availablePermits=" + getAvailablePermits() + ", queueTime=" + getTotalQueueTime()
+                + ", runTime=" + getTotalRunTime() + "]";
+    }
+}
@@ -1,11 +1,19 @@
 package io.github.thunkware.vt.bridge;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 import static io.github.thunkware.vt.bridge.ThreadProviderFactory.getThreadProvider;
 
@@ -114,14 +122,32 @@ public class ExecutorTool {
     }
 
     /**
-     * Creates an Executor that starts a new virtual Thread and limits concurrency to the number of semaphore permits
+     * Creates an Executor that starts a new virtual Thread and limits concurrency to the number of semaphore permits.
+     *
+     * <p>
+     * Tasks that cannot get a permit wait in a queue and only get a thread when a permit frees up,
+     * see {@link QueueingSemaphoreExecutor}.
      *
      * @param permits number of semaphore permits
      * @return a new executor with limited concurrency
      */
     public static ExecutorService newSemaphoreVirtualExecutor(int permits) {
         ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
-        return new SemaphoreExecutor(executor, permits);
+        return new QueueingSemaphoreExecutor(executor, permits);
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits concurrency to the number of semaphore permits,
+     * like {@link #newSemaphoreVirtualExecutor(int)}, and reports its tasks to metrics.
+     *
+     * @param permits number of semaphore permits
+     * @param metrics metrics to report to, e.g. {@link ExecutorStats}
+     * @return a new executor with limited concurrency
+     * @since 0.0.11
+     */
+    public static ExecutorService newSemaphoreVirtualExecutor(int permits, ExecutorMetrics metrics) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new QueueingSemaphoreExecutor(executor, permits, metrics);
     }
 
     /**
@@ -150,6 +176,231 @@ public class ExecutorTool {
         return new SemaphoreExecutor(executor, permits, acquireTimeout);
     }
 
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits concurrency to the number of semaphore
+     * permits, and bounds how long each task runs once it holds a permit. When executionTimeout elapses, the thread
+     * running the task is interrupted and its future completes with a TimeoutException, see {@link SemaphoreExecutor}.
+     *
+     * @param permits          number of semaphore permits
+     * @param acquireTimeout   time to wait for a permit, or null to wait without timeout
+     * @param executionTimeout time a task may run once it holds a permit
+     * @return a new executor with limited concurrency
+     * @since 0.0.11
+     */
+    public static SemaphoreExecutor newSemaphoreVirtualExecutor(int permits, Duration acquireTimeout,
+                                                                Duration executionTimeout) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new SemaphoreExecutor(executor, new Semaphore(permits, true), acquireTimeout,
+                Objects.requireNonNull(executionTimeout, "executionTimeout is required"),
+                MetricsSupport.defaultMetrics());
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits concurrency to a limit that is adjusted
+     * at runtime from the observed run time of the tasks, see {@link AdaptiveSemaphoreExecutor}.
+     *
+     * @param limit algorithm that computes the concurrency limit, e.g. {@link ConcurrencyLimit#gradient(int, int)}
+     * @return a new executor with adaptive concurrency
+     * @since 0.0.11
+     */
+    public static AdaptiveSemaphoreExecutor newAdaptiveSemaphoreVirtualExecutor(ConcurrencyLimit limit) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new AdaptiveSemaphoreExecutor(executor, limit);
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits concurrency per key,
+     * see {@link KeyedSemaphoreExecutor}.
+     *
+     * @param permitsPerKey maximum number of running tasks per key
+     * @param <K>           key type
+     * @return a new executor with limited concurrency per key
+     * @since 0.0.11
+     */
+    public static <K> KeyedSemaphoreExecutor<K> newKeyedSemaphoreVirtualExecutor(int permitsPerKey) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new KeyedSemaphoreExecutor<>(executor, permitsPerKey);
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits concurrency per key and in total,
+     * see {@link KeyedSemaphoreExecutor}.
+     *
+     * @param permitsPerKey maximum number of running tasks per key
+     * @param globalPermits maximum number of running tasks over all keys
+     * @param <K>           key type
+     * @return a new executor with limited concurrency per key
+     * @since 0.0.11
+     */
+    public static <K> KeyedSemaphoreExecutor<K> newKeyedSemaphoreVirtualExecutor(int permitsPerKey, int globalPermits) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new KeyedSemaphoreExecutor<>(executor, permitsPerKey, globalPermits);
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits the rate at which tasks are started,
+     * see {@link RateLimitedExecutor}.
+     *
+     * @param permitsPerSecond number of tasks started per second
+     * @return a new rate limited executor
+     * @since 0.0.11
+     */
+    public static RateLimitedExecutor newRateLimitedVirtualExecutor(double permitsPerSecond) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new RateLimitedExecutor(executor, permitsPerSecond);
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread and limits the rate at which tasks are started,
+     * allowing bursts of up to {@code burst} tasks, see {@link RateLimitedExecutor}.
+     *
+     * @param permitsPerSecond number of tasks started per second
+     * @param burst            number of tasks that can be started at once after the executor was idle
+     * @return a new rate limited executor
+     * @since 0.0.11
+     */
+    public static RateLimitedExecutor newRateLimitedVirtualExecutor(double permitsPerSecond, int burst) {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new RateLimitedExecutor(executor, permitsPerSecond, burst);
+    }
+
+    /**
+     * Creates a ScheduledExecutorService that starts a new virtual Thread on Java 21+ (or new platform thread on
+     * Java 8+) for each due task. The delays are tracked by a single timer thread shared by all such executors,
+     * with a hashed timing wheel, so scheduling and cancelling a task is O(1) and a task runs within about 1ms of
+     * its due time.
+     *
+     * <p>
+     * As with {@link java.util.concurrent.ScheduledThreadPoolExecutor}, delayed tasks still run after shutdown,
+     * while periodic tasks are cancelled by it.
+     *
+     * @return a new scheduled executor
+     * @since 0.0.11
+     */
+    public static ScheduledExecutorService newVirtualScheduledExecutor() {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        return new VirtualScheduledExecutor(executor, HashedWheelTimer.shared());
+    }
+
+    /**
+     * Creates an Executor that runs CPU-bound tasks, the {@link ComputeTask}s, in a ForkJoinPool with one thread
+     * per core, and other tasks in a new virtual Thread on Java 21+. On Java 8+ the other tasks get a new
+     * platform thread, but no more at once than the size of {@link ThreadProviderConfig#getPlatformPoolConfig()},
+     * see {@link HybridExecutor}.
+     *
+     * @return a new hybrid executor
+     * @since 0.0.11
+     */
+    public static HybridExecutor newHybridExecutor() {
+        ExecutorService executor = getThreadProvider().newVirtualThreadPerTaskExecutor();
+        if (!hasVirtualThreads()) {
+            int size = getThreadProvider().getConfig().getPlatformPoolConfig().getSize();
+            executor = new QueueingSemaphoreExecutor(executor, size);
+        }
+        return new HybridExecutor(executor);
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread on Java 21+ (or new platform thread on Java 8+) for each
+     * task, except for the {@link MonitorHeavyTask}s on Java 21 to 23, which run in a pool of one platform thread
+     * per core so that their synchronized blocks do not pin the carrier threads. See
+     * {@link #newPinningAwareVirtualExecutor(int)}.
+     *
+     * @return a new executor that creates a new virtual Thread for each task that does not pin
+     * @since 0.0.11
+     */
+    public static ExecutorService newPinningAwareVirtualExecutor() {
+        return newPinningAwareVirtualExecutor(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates an Executor that starts a new virtual Thread on Java 21+ (or new platform thread on Java 8+) for each
+     * task, except for the {@link MonitorHeavyTask}s on Java 21 to 23, which run in a pool of platform threads so
+     * that their synchronized blocks do not pin the carrier threads. On Java 24+, where synchronized blocks no
+     * longer pin, every task gets a virtual thread, with no change to the callers.
+     *
+     * @param monitorPoolSize number of platform threads for the {@link MonitorHeavyTask}s on Java 21 to 23
+     * @return a new executor that creates a new virtual Thread for each task that does not pin
+     * @since 0.0.11
+     */
+    public static ExecutorService newPinningAwareVirtualExecutor(int monitorPoolSize) {
+        return getThreadProvider().newPinningAwareVirtualThreadPerTaskExecutor(monitorPoolSize);
+    }
+
+    /**
+     * Submits tasks together and returns their aggregate handle, which completes with all results or the first
+     * failure, and gives the futures of the tasks in completion order, see {@link TaskBatch}. A
+     * {@link SemaphoreExecutor} runs the tasks in as many threads as it has available permits, see
+     * {@link SemaphoreExecutor#submitAll(Collection)}; other executors get every task.
+     *
+     * @param executor executor running the tasks
+     * @param tasks    tasks to run
+     * @param <T>      result type
+     * @return TaskBatch of the tasks
+     * @since 0.0.11
+     */
+    public static <T> TaskBatch<T> submitAll(ExecutorService executor, Collection<? extends Callable<T>> tasks) {
+        if (executor instanceof SemaphoreExecutor) {
+            return ((SemaphoreExecutor) executor).submitAll(tasks);
+        }
+        TaskBatch<T> batch = new TaskBatch<>(tasks, UnaryOperator.identity());
+        batch.start(executor);
+        return batch;
+    }
+
+    /**
+     * Same as {@link CompletableFuture#supplyAsync(Supplier)}, but runs the supplier in a new virtual Thread on
+     * Java 21+ instead of the common ForkJoinPool, so blocking suppliers do not starve the pool. On Java 8+ it runs
+     * in a new platform thread, but no more at once than the size of
+     * {@link ThreadProviderConfig#getPlatformPoolConfig()}. The async stages chained to the returned future without
+     * an executor run the same way on Java 9+ VMs; on Java 8 VMs, pass them {@link #getAsyncExecutor()}.
+     *
+     * @param supplier supplier of the result
+     * @param <T>      result type
+     * @return a new CompletableFuture
+     * @since 0.0.11
+     */
+    public static <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return VirtualCompletableFuture.supply(supplier);
+    }
+
+    /**
+     * Same as {@link CompletableFuture#runAsync(Runnable)}, but runs the task in a new virtual Thread on Java 21+
+     * instead of the common ForkJoinPool, see {@link #supplyAsync(Supplier)}.
+     *
+     * @param runnable task to run
+     * @return a new CompletableFuture
+     * @since 0.0.11
+     */
+    public static CompletableFuture<Void> runAsync(Runnable runnable) {
+        return VirtualCompletableFuture.run(runnable);
+    }
+
+    /**
+     * Returns a CompletableFuture completed like a stage, e.g. one returned by a client library, whose async stages
+     * chained without an executor run as with {@link #supplyAsync(Supplier)} instead of in the common ForkJoinPool.
+     *
+     * @param stage stage to complete the future with
+     * @param <T>   result type
+     * @return a new CompletableFuture
+     * @since 0.0.11
+     */
+    public static <T> CompletableFuture<T> toCompletableFuture(CompletionStage<T> stage) {
+        return VirtualCompletableFuture.of(Objects.requireNonNull(stage, "stage is required"));
+    }
+
+    /**
+     * Returns the executor shared by {@link #supplyAsync(Supplier)} and {@link #runAsync(Runnable)}, which starts a
+     * new virtual Thread on Java 21+ (or new platform thread, with a bound, on Java 8+) for each task. Pass it to
+     * the async methods of CompletableFuture that take an executor.
+     *
+     * @return the shared executor for async stages
+     * @since 0.0.11
+     */
+    public static Executor getAsyncExecutor() {
+        return VirtualCompletableFuture.asyncExecutor();
+    }
+
 
     private ExecutorTool() {
         throw new AssertionError();
@@ -0,0 +1,57 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+class GradientLimit implements ConcurrencyLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double TOLERANCE = 1.5;
+    private static final int LONG_WINDOW = 600;
+    private static final double LONG_WINDOW_FACTOR = 2.0 / (LONG_WINDOW + 1);
+
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+
+    // guarded by lock
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    GradientLimit(int initialLimit, int maxLimit) {
+        LimitSupport.checkLimits(initialLimit, maxLimit);
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        double shortRtt = Math.max(1, rttNanos);
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos + (shortRtt - longRttNanos) * LONG_WINDOW_FACTOR;
+            // after a long period of high latency, let the long-term average recover faster
+            if (longRttNanos / shortRtt > 2) {
+                longRttNanos *= 0.95;
+            }
+            if (inFlight * 2 < estimatedLimit) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRtt));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            newLimit = estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+            estimatedLimit = LimitSupport.clamp(newLimit, maxLimit);
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
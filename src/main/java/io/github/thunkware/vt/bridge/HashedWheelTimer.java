@@ -0,0 +1,325 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Timer that keeps timeouts in a hashed wheel of buckets, one bucket per tick, so adding and cancelling a timeout is
+ * O(1) however many are pending, unlike the heap of {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ *
+ * <p>
+ * A single daemon thread advances the wheel every tick and runs the actions of the expired timeouts, so actions must
+ * be short and must not block: hand real work to another thread. A timeout expires at most about one tick after its
+ * deadline. Timeouts further away than a round of the wheel stay in their bucket until the tick of their deadline.
+ * When no timeout is pending, the thread parks instead of ticking.
+ *
+ * <p>
+ * Each bucket has its own lock. The thread adding a timeout links it in its bucket, and the thread cancelling it
+ * unlinks it, so the timer thread only ever handles the timeouts that expire, and a cancelled timeout, with the task
+ * its action holds, is unreachable at once. Threads adding or cancelling timeouts for different ticks do not contend.
+ */
+final class HashedWheelTimer {
+
+    private static final class Holder {
+        private static final HashedWheelTimer SHARED = new HashedWheelTimer("virtual-threads-bridge-timer",
+                TimeUnit.MILLISECONDS.toNanos(1), 1024);
+    }
+
+    private static final AtomicIntegerFieldUpdater<Timeout> TIMEOUT_STATE =
+            AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos = System.nanoTime();
+    // timeouts neither expired nor cancelled
+    private final AtomicLong pending = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean idle;
+    // last tick whose bucket expired, written by the timer thread holding the lock of that bucket
+    private volatile long expiredTick = -1;
+
+    HashedWheelTimer(String threadName, long tickNanos, int ticksPerWheel) {
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("tickNanos must be positive");
+        }
+        if (ticksPerWheel <= 0 || Integer.bitCount(ticksPerWheel) != 1) {
+            throw new IllegalArgumentException("ticksPerWheel must be a power of 2");
+        }
+        this.tickNanos = tickNanos;
+        this.wheel = new Bucket[ticksPerWheel];
+        for (int i = 0; i < ticksPerWheel; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = ticksPerWheel - 1;
+        this.worker = new Thread(this::runWorker, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * @return timer shared by the library, with a tick of 1ms
+     */
+    static HashedWheelTimer shared() {
+        return Holder.SHARED;
+    }
+
+    /**
+     * Runs an action on the timer thread after a delay
+     *
+     * @param action short, non-blocking action
+     * @param delay  delay, zero or negative to run on the next tick
+     * @param unit   unit of the delay
+     * @return Timeout that can be cancelled
+     */
+    Timeout newTimeout(Runnable action, long delay, TimeUnit unit) {
+        long deadline = elapsedNanos() + Math.max(0, unit.toNanos(delay));
+        // overflow of a huge delay
+        return newTimeout(action, deadline < 0 ? Long.MAX_VALUE : deadline);
+    }
+
+    /**
+     * Runs an action on the timer thread at a deadline
+     *
+     * @param action   short, non-blocking action
+     * @param nanoTime deadline, in {@link System#nanoTime()} time
+     * @return Timeout that can be cancelled
+     */
+    Timeout newTimeoutAt(Runnable action, long nanoTime) {
+        return newTimeout(action, Math.max(0, nanoTime - startNanos));
+    }
+
+    private Timeout newTimeout(Runnable action, long deadline) {
+        Timeout timeout = new Timeout(action);
+        long deadlineTick = deadline / tickNanos;
+        pending.incrementAndGet();
+        while (true) {
+            // a deadline already passed goes to the next tick to expire
+            long tick = Math.max(deadlineTick, expiredTick + 1);
+            Bucket bucket = wheel[(int) (tick & mask)];
+            bucket.lock.lock();
+            try {
+                // the timer thread expires the tick holding this lock, so it has not yet if expiredTick is lower
+                if (expiredTick < tick) {
+                    timeout.tick = tick;
+                    bucket.add(timeout);
+                    break;
+                }
+            } finally {
+                bucket.lock.unlock();
+            }
+        }
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+        return timeout;
+    }
+
+    /**
+     * @return number of timeouts neither expired nor cancelled
+     */
+    long pendingTimeouts() {
+        return pending.get();
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    private void runWorker() {
+        while (true) {
+            if (pending.get() == 0) {
+                awaitTimeouts();
+            }
+            long tick = expiredTick + 1;
+            long tickDeadline = (tick + 1) * tickNanos;
+            long sleepNanos;
+            while ((sleepNanos = tickDeadline - elapsedNanos()) > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            expire(tick);
+        }
+    }
+
+    private void awaitTimeouts() {
+        idle = true;
+        while (pending.get() == 0) {
+            LockSupport.park(this);
+        }
+        idle = false;
+        skipTo(elapsedNanos() / tickNanos - 1);
+    }
+
+    // skips the ticks up to the given one, which no live timeout was due in while the timer thread was idle
+    private void skipTo(long tick) {
+        if (tick <= expiredTick) {
+            return;
+        }
+        // in index order, while other threads hold one lock at most
+        for (Bucket bucket : wheel) {
+            bucket.lock.lock();
+        }
+        try {
+            // the timeouts added since the timer thread woke up, for a tick about to be skipped, move to the next one
+            Bucket next = wheel[(int) ((tick + 1) & mask)];
+            for (Bucket bucket : wheel) {
+                for (Timeout timeout = bucket.head, following; timeout != null; timeout = following) {
+                    following = timeout.next;
+                    if (timeout.tick <= tick) {
+                        bucket.remove(timeout);
+                        timeout.tick = tick + 1;
+                        next.add(timeout);
+                    }
+                }
+            }
+            expiredTick = tick;
+        } finally {
+            for (Bucket bucket : wheel) {
+                bucket.lock.unlock();
+            }
+        }
+    }
+
+    private void expire(long tick) {
+        Bucket bucket = wheel[(int) (tick & mask)];
+        // unlinked under the lock, run after it, in the order they were added
+        Timeout first = null;
+        Timeout last = null;
+        bucket.lock.lock();
+        try {
+            for (Timeout timeout = bucket.head, next; timeout != null; timeout = next) {
+                next = timeout.next;
+                // the others are due in a later round
+                if (timeout.tick <= tick) {
+                    bucket.remove(timeout);
+                    if (first == null) {
+                        first = timeout;
+                    } else {
+                        last.next = timeout;
+                    }
+                    last = timeout;
+                }
+            }
+            expiredTick = tick;
+        } finally {
+            bucket.lock.unlock();
+        }
+        for (Timeout timeout = first, next; timeout != null; timeout = next) {
+            next = timeout.next;
+            timeout.next = null;
+            timeout.expire();
+        }
+    }
+
+    /**
+     * Pending action of a {@link HashedWheelTimer}
+     */
+    final class Timeout {
+
+        private static final int INIT = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable action;
+        // not private, for the field updater of the enclosing class on Java 8
+        volatile int state;
+        // guarded by the lock of the bucket, which may be read without it and checked under it
+        private long tick;
+        private Timeout next;
+        private Timeout prev;
+        private Bucket bucket;
+
+        private Timeout(Runnable action) {
+            this.action = action;
+        }
+
+        /**
+         * @return true if cancelled, false if the action already ran or the timeout was already cancelled
+         */
+        boolean cancel() {
+            if (!TIMEOUT_STATE.compareAndSet(this, INIT, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            // null once the timer thread unlinked it to expire, another bucket if it was moved meanwhile
+            Bucket locked = bucket;
+            while (locked != null) {
+                Bucket moved = null;
+                locked.lock.lock();
+                try {
+                    if (bucket == locked) {
+                        locked.remove(this);
+                    } else {
+                        moved = bucket;
+                    }
+                } finally {
+                    locked.lock.unlock();
+                }
+                locked = moved;
+            }
+            return true;
+        }
+
+        boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private void expire() {
+            if (!TIMEOUT_STATE.compareAndSet(this, INIT, EXPIRED)) {
+                return;
+            }
+            pending.decrementAndGet();
+            try {
+                action.run();
+            } catch (Throwable e) {
+                // the timer thread must survive a failing action
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+
+    // doubly linked list of the timeouts of a tick, guarded by its lock
+    private static final class Bucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+
+/**
+ * Executor that runs CPU-bound tasks in a {@link ForkJoinPool} with one thread per core, and every other task in
+ * an executor for blocking work.
+ *
+ * <p>
+ * Virtual threads do not make CPU-bound work faster, and many of them computing at once keep the carrier threads
+ * from the virtual threads that are ready to resume after blocking. Tasks that implement {@link ComputeTask}, or
+ * that are submitted with {@link #submitCompute(Callable)}, run in the compute pool. {@link #parallelFor} and
+ * {@link #parallelReduce} split a range of indices over the compute pool. A compute task that must block should
+ * wrap the call with {@link ThreadTool#block(ManagedBlocking.BlockingCall)}.
+ *
+ * <p>
+ * The bodies of {@link #parallelFor} and {@link #parallelReduce} run in the pool threads without the
+ * {@link ScopedContext} bindings of the caller; submitted tasks see them as with any executor of the bridge.
+ *
+ * @since 0.0.11
+ */
+public class HybridExecutor extends RoutingExecutor {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+    // leaves per compute thread, so that a slow leaf is compensated by stealing the others
+    private static final int LEAVES_PER_THREAD = 8;
+
+    private final ForkJoinPool computePool;
+
+    /**
+     * @param blockingExecutor executor for the tasks that are not {@link ComputeTask}s
+     */
+    public HybridExecutor(ExecutorService blockingExecutor) {
+        this(blockingExecutor, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param blockingExecutor executor for the tasks that are not {@link ComputeTask}s
+     * @param parallelism      number of threads of the compute pool
+     */
+    public HybridExecutor(ExecutorService blockingExecutor, int parallelism) {
+        this(new ForkJoinPool(parallelism, newThreadFactory(), null, false),
+                Objects.requireNonNull(blockingExecutor, "blockingExecutor is required"));
+    }
+
+    private HybridExecutor(ForkJoinPool computePool, ExecutorService blockingExecutor) {
+        super(ComputeTask.class, computePool, blockingExecutor);
+        this.computePool = computePool;
+    }
+
+    private static ForkJoinPool.ForkJoinWorkerThreadFactory newThreadFactory() {
+        String prefix = "hybrid-compute-" + POOL_NUMBER.incrementAndGet() + "-thread-";
+        return pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(prefix + thread.getPoolIndex());
+            return thread;
+        };
+    }
+
+    /**
+     * @return number of threads of the compute pool
+     */
+    public int getParallelism() {
+        return computePool.getParallelism();
+    }
+
+    /**
+     * Submits a task to the compute pool, like a {@link ComputeTask}
+     *
+     * @param task CPU-bound task
+     * @param <T>  result type
+     * @return future of the task
+     */
+    public <T> Future<T> submitCompute(Callable<T> task) {
+        RunnableFuture<T> future = newMarkedTask(Objects.requireNonNull(task));
+        execute(future);
+        return future;
+    }
+
+    /**
+     * Submits a task to the compute pool, like a {@link ComputeTask}
+     *
+     * @param task CPU-bound task
+     * @return future of the task
+     */
+    public Future<?> submitCompute(Runnable task) {
+        RunnableFuture<Object> future = newMarkedTask(Objects.requireNonNull(task), null);
+        execute(future);
+        return future;
+    }
+
+    /**
+     * Runs body for every index of a range in the compute pool, and waits until all are done
+     *
+     * @param fromInclusive first index
+     * @param toExclusive   index after the last one
+     * @param body          CPU-bound work for one index
+     * @throws RuntimeException the exception thrown by the body for some index
+     */
+    public void parallelFor(int fromInclusive, int toExclusive, IntConsumer body) {
+        Objects.requireNonNull(body, "body is required");
+        if (fromInclusive >= toExclusive) {
+            return;
+        }
+        computePool.invoke(new ForAction(fromInclusive, toExclusive, threshold(fromInclusive, toExclusive), body));
+    }
+
+    /**
+     * Maps every index of a range and combines the results in the compute pool, and waits for the result
+     *
+     * @param fromInclusive first index
+     * @param toExclusive   index after the last one
+     * @param identity      result of an empty range, and identity of the combiner
+     * @param mapper        CPU-bound work for one index
+     * @param combiner      associative function that combines two results
+     * @param <T>           result type
+     * @return combined results of all indices
+     * @throws RuntimeException the exception thrown by the mapper or combiner for some index
+     */
+    public <T> T parallelReduce(int fromInclusive, int toExclusive, T identity, IntFunction<? extends T> mapper,
+                                BinaryOperator<T> combiner) {
+        Objects.requireNonNull(mapper, "mapper is required");
+        Objects.requireNonNull(combiner, "combiner is required");
+        if (fromInclusive >= toExclusive) {
+            return identity;
+        }
+        return computePool.invoke(new ReduceTask<>(fromInclusive, toExclusive,
+                threshold(fromInclusive, toExclusive), identity, mapper, combiner));
+    }
+
+    private long threshold(int fromInclusive, int toExclusive) {
+        long size = (long) toExclusive - fromInclusive;
+        return Math.max(1, size / ((long) computePool.getParallelism() * LEAVES_PER_THREAD));
+    }
+
+    // ForkJoinTask is Serializable, but these tasks never leave the compute pool
+    private static final class ForAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final long threshold;
+        private final transient IntConsumer body;
+
+        ForAction(int from, int to, long threshold, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - (long) from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int middle = (int) ((from + (long) to) >>> 1);
+            invokeAll(new ForAction(from, middle, threshold, body), new ForAction(middle, to, threshold, body));
+        }
+    }
+
+    // never serialized, like ForAction
+    private static final class ReduceTask<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final long threshold;
+        private final transient T identity;
+        private final transient IntFunction<? extends T> mapper;
+        private final transient BinaryOperator<T> combiner;
+
+        ReduceTask(int from, int to, long threshold, T identity, IntFunction<? extends T> mapper,
+                   BinaryOperator<T> combiner) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.identity = identity;
+            this.mapper = mapper;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected T compute() {
+            if (to - (long) from <= threshold) {
+                T result = identity;
+                for (int i = from; i < to; i++) {
+                    result = combiner.apply(result, mapper.apply(i));
+                }
+                return result;
+            }
+            int middle = (int) ((from + (long) to) >>> 1);
+            ReduceTask<T> right = new ReduceTask<>(middle, to, threshold, identity, mapper, combiner);
+            right.fork();
+            T left = new ReduceTask<>(from, middle, threshold, identity, mapper, combiner).compute();
+            return combiner.apply(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that limits concurrency per key, e.g. per tenant or per downstream host, and optionally in total.
+ *
+ * <p>
+ * Tasks over the per-key limit wait in a per-key queue, without a thread. The state of a key is created
+ * when its first task is submitted and removed as soon as the key has no running or queued tasks, so memory
+ * is bounded by the number of active keys rather than the number of keys ever seen. Updates of a key
+ * only contend with updates of keys in the same hash bin of the underlying {@link ConcurrentHashMap}.
+ *
+ * @param <K> key type. Keys must implement equals and hashCode
+ * @since 0.0.11
+ */
+public class KeyedSemaphoreExecutor<K> {
+
+    private final ExecutorService delegate;
+    private final ExecutorMetrics metrics;
+    private final int permitsPerKey;
+    private final ConcurrentHashMap<K, KeyState> keys = new ConcurrentHashMap<>();
+    // tasks accepted and not yet handed to the delegate, which is shut down once there are none
+    private final AtomicInteger pending = new AtomicInteger();
+    private final CountDownLatch delegateShutdown = new CountDownLatch(1);
+    private volatile boolean isShutdown;
+
+    /**
+     * @param delegate      executor that runs the tasks
+     * @param permitsPerKey maximum number of running tasks per key
+     */
+    public KeyedSemaphoreExecutor(ExecutorService delegate, int permitsPerKey) {
+        this(delegate, permitsPerKey, MetricsSupport.defaultMetrics());
+    }
+
+    /**
+     * @param delegate      executor that runs the tasks
+     * @param permitsPerKey maximum number of running tasks per key
+     * @param metrics       metrics to report to. Can be null
+     */
+    public KeyedSemaphoreExecutor(ExecutorService delegate, int permitsPerKey, ExecutorMetrics metrics) {
+        if (permitsPerKey < 1) {
+            throw new IllegalArgumentException("permitsPerKey must be at least 1");
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.metrics = metrics;
+        this.permitsPerKey = permitsPerKey;
+    }
+
+    /**
+     * @param delegate      executor that runs the tasks
+     * @param permitsPerKey maximum number of running tasks per key
+     * @param globalPermits maximum number of running tasks over all keys
+     */
+    public KeyedSemaphoreExecutor(ExecutorService delegate, int permitsPerKey, int globalPermits) {
+        this(delegate, permitsPerKey, globalPermits, MetricsSupport.defaultMetrics());
+    }
+
+    /**
+     * @param delegate      executor that runs the tasks
+     * @param permitsPerKey maximum number of running tasks per key
+     * @param globalPermits maximum number of running tasks over all keys
+     * @param metrics       metrics to report to. Can be null
+     */
+    public KeyedSemaphoreExecutor(ExecutorService delegate, int permitsPerKey, int globalPermits, ExecutorMetrics metrics) {
+        this(new QueueingSemaphoreExecutor(delegate, globalPermits, (ExecutorMetrics) null), permitsPerKey, metrics);
+        if (metrics != null) {
+            metrics.bindAvailablePermits(((QueueingSemaphoreExecutor) this.delegate)::availablePermits);
+        }
+    }
+
+    /**
+     * Executes the given command once the key has a permit available
+     *
+     * @param key     key to limit concurrency by
+     * @param command the runnable task
+     * @throws RejectedExecutionException if this executor is shut down
+     */
+    public void execute(K key, Runnable command) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(command);
+        pending.incrementAndGet();
+        if (isShutdown) {
+            onDispatched();
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+
+        KeyedTask task = new KeyedTask(key, ScopedContext.wrap(command), MetricsSupport.onSubmitted(metrics));
+        keys.compute(key, (k, state) -> {
+            if (state == null) {
+                state = new KeyState();
+            }
+            if (state.running < permitsPerKey) {
+                state.running++;
+                task.admitted = true;
+            } else {
+                state.enqueue(task);
+            }
+            return state;
+        });
+
+        if (task.admitted) {
+            dispatch(task);
+        }
+    }
+
+    /**
+     * Submits a value-returning task to run once the key has a permit available
+     *
+     * @param key  key to limit concurrency by
+     * @param task the task to submit
+     * @param <T>  the type of the task's result
+     * @return a Future representing pending completion of the task
+     * @throws RejectedExecutionException if this executor is shut down
+     */
+    public <T> Future<T> submit(K key, Callable<T> task) {
+        RunnableFuture<T> future = new MetricsSupport.ObservedTask<>(task);
+        execute(key, future);
+        return future;
+    }
+
+    /**
+     * Submits a Runnable task to run once the key has a permit available
+     *
+     * @param key  key to limit concurrency by
+     * @param task the task to submit
+     * @return a Future representing pending completion of the task
+     * @throws RejectedExecutionException if this executor is shut down
+     */
+    public Future<?> submit(K key, Runnable task) {
+        RunnableFuture<Void> future = new MetricsSupport.ObservedTask<>(task, null);
+        execute(key, future);
+        return future;
+    }
+
+    private void dispatch(KeyedTask task) {
+        while (task != null) {
+            KeyedTask next = null;
+            try {
+                ScopedContext.executeUnbound(delegate, task);
+            } catch (RejectedExecutionException e) {
+                cancel(ScopedContext.unwrap(task.command));
+                next = release(task);
+            } finally {
+                onDispatched();
+            }
+            task = next;
+        }
+    }
+
+    // Returns the key's permit, or hands it to the next waiting task of the key, which is then returned
+    private KeyedTask release(KeyedTask task) {
+        keys.compute(task.key, (k, state) -> {
+            KeyedTask next = state.poll();
+            if (next != null) {
+                task.next = next;
+                return state;
+            }
+            state.running--;
+            return state.running == 0 ? null : state;
+        });
+        return task.next;
+    }
+
+    private void onDispatched() {
+        if (pending.decrementAndGet() == 0 && isShutdown) {
+            shutdownDelegate();
+        }
+    }
+
+    private void shutdownDelegate() {
+        delegate.shutdown();
+        delegateShutdown.countDown();
+    }
+
+    private static void cancel(Runnable command) {
+        if (command instanceof Future) {
+            ((Future<?>) command).cancel(false);
+        }
+    }
+
+    // the command submitted for a task returned by the delegate
+    private static Runnable unwrap(Runnable task) {
+        if (task instanceof KeyedSemaphoreExecutor.KeyedTask) {
+            return ScopedContext.unwrap(((KeyedSemaphoreExecutor<?>.KeyedTask) task).command);
+        }
+        return task;
+    }
+
+    /**
+     * @param key key
+     * @return number of running tasks of the key
+     */
+    public int getInFlight(K key) {
+        KeyState state = keys.get(key);
+        return state == null ? 0 : state.running;
+    }
+
+    /**
+     * @return number of keys with running or queued tasks
+     */
+    public int getActiveKeys() {
+        return keys.size();
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted tasks are executed, but no new tasks are accepted.
+     */
+    public void shutdown() {
+        isShutdown = true;
+        if (pending.get() == 0) {
+            shutdownDelegate();
+        }
+    }
+
+    /**
+     * Attempts to stop all running tasks and returns the tasks that were waiting for a permit.
+     *
+     * @return list of tasks that never commenced execution
+     */
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        List<Runnable> tasks = new ArrayList<>();
+        for (K key : keys.keySet()) {
+            keys.computeIfPresent(key, (k, state) -> {
+                KeyedTask task;
+                while ((task = state.poll()) != null) {
+                    tasks.add(ScopedContext.unwrap(task.command));
+                }
+                return state;
+            });
+        }
+        for (Runnable task : delegate.shutdownNow()) {
+            tasks.add(unwrap(task));
+        }
+        delegateShutdown.countDown();
+        return tasks;
+    }
+
+    /**
+     * @return true if this executor has been shut down
+     */
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * @return true if all tasks have completed following shut down
+     */
+    public boolean isTerminated() {
+        return delegateShutdown.getCount() == 0 && delegate.isTerminated();
+    }
+
+    /**
+     * Blocks until all tasks have completed execution after a shutdown request, or the timeout occurs,
+     * or the current thread is interrupted, whichever happens first.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout argument
+     * @return true if this executor terminated and false if the timeout elapsed before termination
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!delegateShutdown.await(timeout, unit)) {
+            return false;
+        }
+        return delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    // guarded by the hash bin lock of the key in ConcurrentHashMap.compute
+    private final class KeyState {
+        private volatile int running;
+        // most keys never exceed their limit, so the queue is created on first use
+        private Queue<KeyedTask> waiting;
+
+        void enqueue(KeyedTask task) {
+            if (waiting == null) {
+                waiting = new ArrayDeque<>();
+            }
+            waiting.add(task);
+        }
+
+        KeyedTask poll() {
+            return waiting == null ? null : waiting.poll();
+        }
+    }
+
+    private final class KeyedTask implements Runnable {
+        private final K key;
+        private final Runnable command;
+        private final long submittedNanos;
+        private boolean admitted;
+        private KeyedTask next;
+
+        KeyedTask(K key, Runnable command, long submittedNanos) {
+            this.key = key;
+            this.command = command;
+            this.submittedNanos = submittedNanos;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = MetricsSupport.onStarted(metrics, submittedNanos);
+            try {
+                try {
+                    command.run();
+                } catch (RuntimeException | Error e) {
+                    MetricsSupport.onFailed(metrics, startNanos, e);
+                    throw e;
+                }
+                MetricsSupport.onFinished(metrics, startNanos, command);
+            } finally {
+                KeyedTask nextTask = release(this);
+                if (nextTask != null) {
+                    dispatch(nextTask);
+                }
+            }
+        }
+    }
+}
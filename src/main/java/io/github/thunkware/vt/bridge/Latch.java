@@ -0,0 +1,69 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latch that lets threads wait until it was counted down a number of times, without pinning virtual threads,
+ * with the same API on Java 8+.
+ *
+ * <p>
+ * It is a {@link CountDownLatch} on every JVM: its waiters park, which never pins, and it is as cheap as a monitor
+ * when nobody waits, so unlike {@link Mutex} it needs no variant for the JVMs where monitors do not pin.
+ *
+ * @since 0.0.11
+ */
+public final class Latch {
+
+    private final CountDownLatch latch;
+
+    private Latch(int count) {
+        this.latch = new CountDownLatch(count);
+    }
+
+    /**
+     * @param count number of {@link #countDown()} calls before the waiters are released
+     * @return a new Latch
+     */
+    public static Latch newLatch(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative");
+        }
+        return new Latch(count);
+    }
+
+    /**
+     * Decrements the count, and releases the waiters when it reaches zero
+     */
+    public void countDown() {
+        latch.countDown();
+    }
+
+    /**
+     * @return current count
+     */
+    public long getCount() {
+        return latch.getCount();
+    }
+
+    /**
+     * Waits until the count reaches zero
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        latch.await();
+    }
+
+    /**
+     * Waits until the count reaches zero, or the timeout elapses
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return true if the count reached zero, false if the timeout elapsed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return latch.await(timeout, unit);
+    }
+}
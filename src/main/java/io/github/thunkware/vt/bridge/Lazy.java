@@ -0,0 +1,78 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Value computed on first use, at most once, without pinning virtual threads:
+ * <pre>{@code
+ * private static final Lazy<Parser> PARSER = Lazy.of(Parser::new);
+ *
+ * PARSER.get().parse(text);
+ * }</pre>
+ *
+ * <p>
+ * Once computed, {@link #get()} is a volatile read. Threads that call it during the computation wait on a
+ * {@link Mutex}, so on Java 21 to 23 they park instead of pinning their carrier thread as a synchronized lazy
+ * initialization would. If the supplier throws, the exception is rethrown and the next call tries again.
+ *
+ * @param <T> type of the value
+ * @since 0.0.11
+ */
+public final class Lazy<T> {
+
+    private static final Object UNSET = new Object();
+
+    private final Mutex mutex = Mutex.newMutex();
+    private Supplier<? extends T> supplier;
+    private volatile Object value = UNSET;
+
+    private Lazy(Supplier<? extends T> supplier) {
+        this.supplier = supplier;
+    }
+
+    /**
+     * @param supplier computes the value, may return null
+     * @param <T>      type of the value
+     * @return a new Lazy
+     */
+    public static <T> Lazy<T> of(Supplier<? extends T> supplier) {
+        return new Lazy<>(Objects.requireNonNull(supplier, "supplier is required"));
+    }
+
+    /**
+     * @return the value, computed by the calling thread if it is the first one
+     */
+    @SuppressWarnings("unchecked")
+    public T get() {
+        Object current = value;
+        if (current == UNSET) {
+            current = mutex.get(this::compute);
+        }
+        return (T) current;
+    }
+
+    private Object compute() {
+        Object current = value;
+        if (current == UNSET) {
+            current = supplier.get();
+            value = current;
+            // the value is published, let the supplier and what it captured be collected
+            supplier = null;
+        }
+        return current;
+    }
+
+    /**
+     * @return true if the value was computed
+     */
+    public boolean isInitialized() {
+        return value != UNSET;
+    }
+
+    @Override
+    public String toString() {
+        Object current = value;
+        return current == UNSET ? "Lazy[not initialized]" : "Lazy[" + current + "]";
+    }
+}
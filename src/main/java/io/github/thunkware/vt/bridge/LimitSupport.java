@@ -0,0 +1,24 @@
+package io.github.thunkware.vt.bridge;
+
+class LimitSupport {
+
+    private LimitSupport() {
+    }
+
+    static void checkLimits(int initialLimit, int maxLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("initialLimit must be at least 1");
+        }
+        if (maxLimit < initialLimit) {
+            throw new IllegalArgumentException("maxLimit must be at least initialLimit");
+        }
+    }
+
+    static double log10(double limit) {
+        return Math.max(1, Math.log10(limit));
+    }
+
+    static double clamp(double limit, int maxLimit) {
+        return Math.max(1, Math.min(maxLimit, limit));
+    }
+}
@@ -0,0 +1,332 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+
+/**
+ * Wraps blocking calls in {@link ForkJoinPool.ManagedBlocker}, so that a {@link ForkJoinPool} running the caller adds
+ * a thread while the call blocks and stops using it once the call returns. This is what lets
+ * {@link CompatibilityPolicy#WORK_STEALING_POOL} run many blocking tasks on few threads.
+ *
+ * <p>
+ * Outside of a ForkJoinPool, including in virtual threads, the calls are made directly, with no overhead.
+ * A call that can complete without blocking, e.g. a take from a non-empty queue, does not ask the pool for a thread.
+ *
+ * @since 0.0.11
+ */
+public final class ManagedBlocking {
+
+    /**
+     * A call that may block
+     *
+     * @param <T> result type
+     * @param <X> exception type
+     */
+    @FunctionalInterface
+    public interface BlockingCall<T, X extends Throwable> {
+        T call() throws X;
+    }
+
+    /**
+     * Makes a blocking call, see {@link ThreadTool#block(BlockingCall)}
+     *
+     * @param call blocking call
+     * @param <T>  result type
+     * @param <X>  exception type
+     * @return result of the call
+     * @throws X exception of the call
+     */
+    public static <T, X extends Throwable> T block(BlockingCall<T, X> call) throws X {
+        return managedBlock(() -> null, call);
+    }
+
+    /**
+     * Wraps the blocking methods of a queue: put, take and the timed offer and poll
+     *
+     * @param queue BlockingQueue
+     * @param <E>   element type
+     * @return queue whose blocking methods are managed
+     */
+    public static <E> BlockingQueue<E> queue(BlockingQueue<E> queue) {
+        return new ManagedQueue<>(Objects.requireNonNull(queue, "queue is required"));
+    }
+
+    /**
+     * Wraps the blocking methods of a lock: lock, lockInterruptibly and the timed tryLock. Waiting on a
+     * {@link Condition} of the lock is not managed.
+     *
+     * @param lock Lock
+     * @return lock whose blocking methods are managed
+     */
+    public static Lock lock(Lock lock) {
+        return new ManagedLock(Objects.requireNonNull(lock, "lock is required"));
+    }
+
+    /**
+     * @param tryNow non-blocking attempt, returns null if the call would block
+     * @param call   blocking call
+     */
+    private static <T, X extends Throwable> T managedBlock(Supplier<T> tryNow, BlockingCall<T, X> call) throws X {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread)) {
+            return call.call();
+        }
+
+        Blocker<T, X> blocker = new Blocker<>(tryNow, call);
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            // the pool saw the interrupt before making the call, let the call react to it
+            Thread.currentThread().interrupt();
+            if (!blocker.done) {
+                return call.call();
+            }
+        }
+        return blocker.result();
+    }
+
+    private static final class Blocker<T, X extends Throwable> implements ForkJoinPool.ManagedBlocker {
+
+        private final Supplier<T> tryNow;
+        private final BlockingCall<T, X> call;
+        private T value;
+        private Throwable failure;
+        private boolean done;
+
+        Blocker(Supplier<T> tryNow, BlockingCall<T, X> call) {
+            this.tryNow = tryNow;
+            this.call = call;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if (!done) {
+                value = tryNow.get();
+                done = value != null;
+            }
+            return done;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                value = call.call();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        T result() throws X {
+            if (failure != null) {
+                // call only throws X or unchecked exceptions
+                throw (X) failure;
+            }
+            return value;
+        }
+    }
+
+    private static final class ManagedLock implements Lock {
+
+        private final Lock lock;
+
+        ManagedLock(Lock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void lock() {
+            managedBlock(this::tryLockNow, () -> {
+                lock.lock();
+                return Boolean.TRUE;
+            });
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            managedBlock(this::tryLockNow, () -> {
+                lock.lockInterruptibly();
+                return Boolean.TRUE;
+            });
+        }
+
+        @Override
+        public boolean tryLock() {
+            return lock.tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return managedBlock(this::tryLockNow, () -> lock.tryLock(time, unit));
+        }
+
+        @Override
+        public void unlock() {
+            lock.unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            return lock.newCondition();
+        }
+
+        private Boolean tryLockNow() {
+            return lock.tryLock() ? Boolean.TRUE : null;
+        }
+    }
+
+    private static final class ManagedQueue<E> implements BlockingQueue<E> {
+
+        private final BlockingQueue<E> queue;
+
+        ManagedQueue(BlockingQueue<E> queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void put(E e) throws InterruptedException {
+            managedBlock(() -> queue.offer(e) ? Boolean.TRUE : null, () -> {
+                queue.put(e);
+                return Boolean.TRUE;
+            });
+        }
+
+        @Override
+        public boolean offer(E e, long timeout, TimeUnit unit) throws InterruptedException {
+            return managedBlock(() -> queue.offer(e) ? Boolean.TRUE : null, () -> queue.offer(e, timeout, unit));
+        }
+
+        @Override
+        public E take() throws InterruptedException {
+            return managedBlock(queue::poll, queue::take);
+        }
+
+        @Override
+        public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+            return managedBlock(queue::poll, () -> queue.poll(timeout, unit));
+        }
+
+        @Override
+        public boolean add(E e) {
+            return queue.add(e);
+        }
+
+        @Override
+        public boolean offer(E e) {
+            return queue.offer(e);
+        }
+
+        @Override
+        public E remove() {
+            return queue.remove();
+        }
+
+        @Override
+        public E poll() {
+            return queue.poll();
+        }
+
+        @Override
+        public E element() {
+            return queue.element();
+        }
+
+        @Override
+        public E peek() {
+            return queue.peek();
+        }
+
+        @Override
+        public int remainingCapacity() {
+            return queue.remainingCapacity();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return queue.remove(o);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return queue.contains(o);
+        }
+
+        @Override
+        public int drainTo(Collection<? super E> c) {
+            return queue.drainTo(c);
+        }
+
+        @Override
+        public int drainTo(Collection<? super E> c, int maxElements) {
+            return queue.drainTo(c, maxElements);
+        }
+
+        @Override
+        public int size() {
+            return queue.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return queue.iterator();
+        }
+
+        @Override
+        public Object[] toArray() {
+            return queue.toArray();
+        }
+
+        @Override
+        public <T> T[] toArray(T[] a) {
+            return queue.toArray(a);
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> c) {
+            return queue.containsAll(c);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends E> c) {
+            return queue.addAll(c);
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> c) {
+            return queue.removeAll(c);
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> c) {
+            return queue.retainAll(c);
+        }
+
+        @Override
+        public void clear() {
+            queue.clear();
+        }
+
+        @Override
+        public String toString() {
+            return queue.toString();
+        }
+    }
+
+    private ManagedBlocking() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,136 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator behind {@link StreamTool#mapConcurrent}: maps each element of a source in its own virtual thread, at
+ * most maxConcurrency at once, and yields the results in encounter order.
+ *
+ * <p>
+ * The running mappings form a window that follows the head of the source: an element is pulled from the source only
+ * when the window has room, so the source is consumed lazily, and a slow element holds back the results after it
+ * rather than letting them accumulate.
+ */
+final class MapConcurrentSpliterator<T, R> implements Spliterator<R> {
+
+    private final Spliterator<T> source;
+    private final int maxConcurrency;
+    private final Function<? super T, ? extends R> mapper;
+    private final ThreadProvider threadProvider;
+    // running or completed mappings, in encounter order
+    private final Deque<FutureTask<R>> window = new ArrayDeque<>();
+    private boolean sourceDone;
+
+    private MapConcurrentSpliterator(Spliterator<T> source, int maxConcurrency,
+                                     Function<? super T, ? extends R> mapper, ThreadProvider threadProvider) {
+        this.source = source;
+        this.maxConcurrency = maxConcurrency;
+        this.mapper = mapper;
+        this.threadProvider = threadProvider;
+    }
+
+    static <T, R> Stream<R> mapConcurrent(Stream<T> stream, int maxConcurrency,
+                                         Function<? super T, ? extends R> mapper, ThreadProvider threadProvider) {
+        Objects.requireNonNull(stream, "stream is required");
+        Objects.requireNonNull(mapper, "mapper is required");
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        MapConcurrentSpliterator<T, R> spliterator = new MapConcurrentSpliterator<>(stream.spliterator(),
+                maxConcurrency, ScopedContext.wrap(mapper), threadProvider);
+        return StreamSupport.stream(spliterator, false)
+                .onClose(spliterator::cancel)
+                .onClose(stream::close);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        fill();
+        FutureTask<R> head = window.poll();
+        if (head == null) {
+            return false;
+        }
+        R result;
+        try {
+            result = head.get();
+        } catch (InterruptedException e) {
+            head.cancel(true);
+            cancel();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a mapped element", e);
+        } catch (ExecutionException e) {
+            cancel();
+            throw rethrow(e.getCause());
+        }
+        // the next mapping runs while the action handles this result
+        fill();
+        action.accept(result);
+        return true;
+    }
+
+    private void fill() {
+        while (!sourceDone && window.size() < maxConcurrency) {
+            if (!source.tryAdvance(this::start)) {
+                sourceDone = true;
+            }
+        }
+    }
+
+    private void start(T element) {
+        FutureTask<R> task = new FutureTask<>(() -> mapper.apply(element));
+        try {
+            threadProvider.startVirtualThread(task);
+        } catch (RuntimeException | Error e) {
+            cancel();
+            throw e;
+        }
+        window.add(task);
+    }
+
+    /**
+     * Interrupts the running mappings and stops pulling elements from the source
+     */
+    void cancel() {
+        sourceDone = true;
+        FutureTask<R> task;
+        while ((task = window.poll()) != null) {
+            task.cancel(true);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException) {
+            return (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return new IllegalStateException(failure);
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        // the window is sequential, the mappings are the concurrent part
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long size = source.estimateSize();
+        return size == Long.MAX_VALUE ? size : size + window.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & ORDERED;
+    }
+}
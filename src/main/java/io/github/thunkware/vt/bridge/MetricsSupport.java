@@ -0,0 +1,99 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Reports to an {@link ExecutorMetrics} that may be null. Every method is a no-op without metrics, clock reads
+ * included, so executors call them unconditionally on their hot path.
+ */
+final class MetricsSupport {
+
+    static ExecutorMetrics defaultMetrics() {
+        return ThreadProviderFactory.getThreadProvider().getConfig().getExecutorMetrics();
+    }
+
+    /**
+     * @return submission time, to be passed to {@link #onStarted}
+     */
+    static long onSubmitted(ExecutorMetrics metrics) {
+        if (metrics == null) {
+            return 0;
+        }
+        metrics.onSubmitted();
+        return System.nanoTime();
+    }
+
+    /**
+     * @return start time, to be passed to {@link #onCompleted}, {@link #onFailed} or {@link #onFinished}
+     */
+    static long onStarted(ExecutorMetrics metrics, long submittedNanos) {
+        if (metrics == null) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        metrics.onStarted(start - submittedNanos);
+        return start;
+    }
+
+    static void onCompleted(ExecutorMetrics metrics, long startNanos) {
+        if (metrics != null) {
+            metrics.onCompleted(System.nanoTime() - startNanos);
+        }
+    }
+
+    static void onFailed(ExecutorMetrics metrics, long startNanos, Throwable failure) {
+        if (metrics != null) {
+            metrics.onFailed(System.nanoTime() - startNanos, failure);
+        }
+    }
+
+    /**
+     * Reports a task that returned normally, which for an {@link ObservedTask} may still have failed
+     */
+    static void onFinished(ExecutorMetrics metrics, long startNanos, Runnable command) {
+        if (metrics == null) {
+            return;
+        }
+        Throwable failure = failureOf(command);
+        if (failure == null) {
+            onCompleted(metrics, startNanos);
+        } else {
+            onFailed(metrics, startNanos, failure);
+        }
+    }
+
+    /**
+     * @return exception of an {@link ObservedTask}, possibly wrapped by {@link ScopedContext#wrap(Runnable)}, or null
+     */
+    static Throwable failureOf(Runnable command) {
+        Runnable task = ScopedContext.unwrap(command);
+        return task instanceof ObservedTask ? ((ObservedTask<?>) task).failure : null;
+    }
+
+    // remembers the exception of the task, which FutureTask only reveals through get()
+    static class ObservedTask<T> extends FutureTask<T> {
+
+        private Throwable failure;
+
+        ObservedTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        ObservedTask(Runnable runnable, T result) {
+            super(runnable, result);
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            if (!isDone()) {
+                failure = t;
+            }
+            super.setException(t);
+        }
+    }
+
+    private MetricsSupport() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.thunkware.vt.bridge;
+
+/**
+ * Marks a {@link Runnable} or {@link java.util.concurrent.Callable} that blocks inside synchronized blocks or
+ * methods, e.g. in a legacy JDBC driver. On Java 21 to 23 such a task pins the carrier thread of its virtual thread
+ * while it blocks, so the executors from {@link ExecutorTool#newPinningAwareVirtualExecutor()} run it in a small pool
+ * of platform threads instead. On Java 24+ it runs in a virtual thread like any other task.
+ *
+ * @since 0.0.11
+ */
+public interface MonitorHeavyTask {
+}
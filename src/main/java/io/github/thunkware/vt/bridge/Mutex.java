@@ -0,0 +1,107 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Reentrant mutual exclusion that does not pin virtual threads, with the same API on Java 8+:
+ * <pre>{@code
+ * private final Mutex mutex = Mutex.newMutex();
+ *
+ * mutex.run(() -> cache.put(key, value));
+ * Value value = mutex.get(() -> cache.get(key));
+ * }</pre>
+ *
+ * <p>
+ * On Java 21 to 23, where a virtual thread that blocks on a monitor pins its carrier thread, it is a
+ * {@link ReentrantLock}. On Java 8+ and Java 24+ it is a plain monitor, which is cheaper when uncontended.
+ *
+ * @since 0.0.11
+ */
+public abstract class Mutex {
+
+    // monitors pin the carrier of a virtual thread that blocks on them, unless its virtual threads are safe (JEP 491)
+    static final boolean AVOID_MONITORS = ThreadTool.hasVirtualThreads() && !ThreadTool.hasSafeVirtualThreads();
+
+    Mutex() {
+    }
+
+    /**
+     * @return a new Mutex suited to the JVM
+     */
+    public static Mutex newMutex() {
+        return newMutex(AVOID_MONITORS);
+    }
+
+    static Mutex newMutex(boolean avoidMonitors) {
+        return avoidMonitors ? new LockMutex(new ReentrantLock()) : new MonitorMutex();
+    }
+
+    /**
+     * Runs an action while holding the mutex
+     *
+     * @param action action to run
+     */
+    public abstract void run(Runnable action);
+
+    /**
+     * Runs an action while holding the mutex
+     *
+     * @param action action to run
+     * @param <T>    result type
+     * @return result of the action
+     */
+    public abstract <T> T get(Supplier<T> action);
+
+    private static final class MonitorMutex extends Mutex {
+
+        @Override
+        public void run(Runnable action) {
+            Objects.requireNonNull(action, "action is required");
+            synchronized (this) {
+                action.run();
+            }
+        }
+
+        @Override
+        public <T> T get(Supplier<T> action) {
+            Objects.requireNonNull(action, "action is required");
+            synchronized (this) {
+                return action.get();
+            }
+        }
+    }
+
+    static final class LockMutex extends Mutex {
+
+        private final Lock lock;
+
+        LockMutex(Lock lock) {
+            this.lock = lock;
+        }
+
+        @Override
+        public void run(Runnable action) {
+            Objects.requireNonNull(action, "action is required");
+            lock.lock();
+            try {
+                action.run();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public <T> T get(Supplier<T> action) {
+            Objects.requireNonNull(action, "action is required");
+            lock.lock();
+            try {
+                return action.get();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link VirtualThreadTelemetry} for JVMs without virtual threads or without JFR
+ */
+final class NoopVirtualThreadTelemetry implements VirtualThreadTelemetry {
+
+    @Override
+    public boolean isActive() {
+        return false;
+    }
+
+    @Override
+    public long getPinnedCount() {
+        return 0;
+    }
+
+    @Override
+    public Duration getPinnedDuration() {
+        return Duration.ZERO;
+    }
+
+    @Override
+    public long getSubmitFailedCount() {
+        return 0;
+    }
+
+    @Override
+    public long getStartedCount() {
+        return 0;
+    }
+
+    @Override
+    public long getEndedCount() {
+        return 0;
+    }
+
+    @Override
+    public List<PinnedStackTrace> getTopPinnedStackTraces(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void close() {
+        // no op
+    }
+}
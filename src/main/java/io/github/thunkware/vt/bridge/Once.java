@@ -0,0 +1,49 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+
+/**
+ * Action that runs at most once successfully, however many threads call {@link #run()}, without pinning virtual
+ * threads. Callers that arrive while the action runs wait until it is done, see {@link Lazy}.
+ *
+ * <pre>{@code
+ * private static final Once INIT = Once.of(Driver::register);
+ *
+ * INIT.run();
+ * }</pre>
+ *
+ * @since 0.0.11
+ */
+public final class Once {
+
+    private final Lazy<Boolean> done;
+
+    private Once(Runnable action) {
+        this.done = Lazy.of(() -> {
+            action.run();
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * @param action action to run once, may be run again by the next caller if it throws
+     * @return a new Once
+     */
+    public static Once of(Runnable action) {
+        return new Once(Objects.requireNonNull(action, "action is required"));
+    }
+
+    /**
+     * Runs the action if it did not run yet, or waits until it is done if another thread runs it
+     */
+    public void run() {
+        done.get();
+    }
+
+    /**
+     * @return true if the action ran successfully
+     */
+    public boolean isDone() {
+        return done.isInitialized();
+    }
+}
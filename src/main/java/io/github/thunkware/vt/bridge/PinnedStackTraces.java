@@ -0,0 +1,84 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Most frequent pinning stack traces of a {@link VirtualThreadTelemetry}, in bounded memory.
+ *
+ * <p>
+ * Uses the space-saving algorithm: once full, a new stack trace replaces the one counted least and inherits its
+ * count. A stack trace that pins often therefore stays whenever it shows up, even after the capacity was reached,
+ * while stack traces seen once come and go. A count may overestimate by the inherited count, never underestimate,
+ * and the duration is only that of the events counted since the stack trace was last added.
+ */
+final class PinnedStackTraces {
+
+    private final int capacity;
+    private final Lock lock = new ReentrantLock();
+    private final Map<List<StackTraceElement>, Counter> counters = new HashMap<>();
+
+    PinnedStackTraces(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void add(List<StackTraceElement> stackTrace, long nanos) {
+        if (capacity == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Counter counter = counters.get(stackTrace);
+            if (counter == null) {
+                counter = new Counter();
+                if (counters.size() >= capacity) {
+                    // linear in the capacity, which is small, and only for a stack trace not yet counted
+                    Map.Entry<List<StackTraceElement>, Counter> min = null;
+                    for (Map.Entry<List<StackTraceElement>, Counter> entry : counters.entrySet()) {
+                        if (min == null || entry.getValue().count < min.getValue().count) {
+                            min = entry;
+                        }
+                    }
+                    counters.remove(min.getKey());
+                    counter.count = min.getValue().count;
+                }
+                counters.put(stackTrace, counter);
+            }
+            counter.count++;
+            counter.nanos += nanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<VirtualThreadTelemetry.PinnedStackTrace> top(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        List<VirtualThreadTelemetry.PinnedStackTrace> stackTraces;
+        lock.lock();
+        try {
+            stackTraces = new ArrayList<>(counters.size());
+            for (Map.Entry<List<StackTraceElement>, Counter> entry : counters.entrySet()) {
+                stackTraces.add(new VirtualThreadTelemetry.PinnedStackTrace(
+                        entry.getKey().toArray(new StackTraceElement[0]), entry.getValue().count,
+                        Duration.ofNanos(entry.getValue().nanos)));
+            }
+        } finally {
+            lock.unlock();
+        }
+        stackTraces.sort(Comparator.comparingLong(VirtualThreadTelemetry.PinnedStackTrace::getCount).reversed());
+        return stackTraces.size() > limit ? new ArrayList<>(stackTraces.subList(0, limit)) : stackTraces;
+    }
+
+    private static final class Counter {
+        private long count;
+        private long nanos;
+    }
+}
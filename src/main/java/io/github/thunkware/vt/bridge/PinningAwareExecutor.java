@@ -0,0 +1,42 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor that runs the {@link MonitorHeavyTask}s in a pool of platform threads and the other tasks in a virtual
+ * thread executor, for Java 21 to 23 where blocking in a synchronized block pins the carrier thread.
+ * Monitor-heavy tasks wait in the queue of the pool when all its threads are busy.
+ */
+final class PinningAwareExecutor extends RoutingExecutor {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+    private static final long IDLE_TIMEOUT_SECONDS = 60;
+
+    PinningAwareExecutor(ExecutorService virtualExecutor, int monitorPoolSize) {
+        super(MonitorHeavyTask.class, newMonitorPool(monitorPoolSize),
+                Objects.requireNonNull(virtualExecutor, "virtualExecutor is required"));
+    }
+
+    private static ThreadPoolExecutor newMonitorPool(int size) {
+        ThreadPoolExecutor monitorPool = new ThreadPoolExecutor(size, size,
+                IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), newThreadFactory());
+        monitorPool.allowCoreThreadTimeOut(true);
+        return monitorPool;
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        String prefix = "monitor-pool-" + POOL_NUMBER.incrementAndGet() + "-thread-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of daemon platform threads behind {@link CompatibilityPolicy#BOUNDED_PLATFORM_POOL}. Executors of the
+ * policy get {@link PooledThread} handles from their thread factory, which run their task in the pool when started.
+ * The pool is never shut down, its threads end after the idle timeout.
+ */
+final class PlatformPool {
+
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final PlatformPoolConfig config;
+    private final ThreadPoolExecutor executor;
+
+    PlatformPool(PlatformPoolConfig config) {
+        this.config = config;
+        int capacity = config.getQueueCapacity();
+        BlockingQueue<Runnable> queue = capacity == Integer.MAX_VALUE
+                ? new LinkedBlockingQueue<>()
+                : new ArrayBlockingQueue<>(capacity);
+        this.executor = new ThreadPoolExecutor(config.getSize(), config.getSize(),
+                config.getIdleTimeout().toNanos(), TimeUnit.NANOSECONDS, queue,
+                newThreadFactory(), newOverflowHandler(config.getOverflow()));
+        executor.allowCoreThreadTimeOut(true);
+        if (config.isPrestart()) {
+            executor.prestartAllCoreThreads();
+        }
+    }
+
+    PlatformPoolConfig getConfig() {
+        return config;
+    }
+
+    Thread newThread(Runnable task) {
+        return new PooledThread(executor, task);
+    }
+
+    private static ThreadFactory newThreadFactory() {
+        String prefix = "platform-pool-" + POOL_NUMBER.incrementAndGet() + "-thread-";
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadNumber.incrementAndGet());
+            // like virtual threads, pooled tasks do not keep the JVM alive
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static RejectedExecutionHandler newOverflowHandler(PlatformPoolConfig.Overflow overflow) {
+        switch (overflow) {
+            case REJECT:
+                return new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS:
+                return new ThreadPoolExecutor.CallerRunsPolicy();
+            case BLOCK:
+                return (runnable, executor) -> {
+                    if (executor.isShutdown()) {
+                        throw new RejectedExecutionException("Platform pool is shut down");
+                    }
+                    try {
+                        executor.getQueue().put(runnable);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for room in the platform pool", e);
+                    }
+                };
+            default:
+                throw new IllegalArgumentException("Unknown overflow " + overflow);
+        }
+    }
+}
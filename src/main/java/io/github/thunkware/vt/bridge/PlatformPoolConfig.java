@@ -0,0 +1,121 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration of the shared platform thread pool used by {@link CompatibilityPolicy#BOUNDED_PLATFORM_POOL}
+ *
+ * <p>
+ * The pool is created on first use with the configuration set by
+ * {@link ThreadProviderConfig#setPlatformPoolConfig(PlatformPoolConfig)} at that time. Setting another configuration
+ * replaces the pool: the previous one still accepts and runs the tasks of the executors that use it, then its threads
+ * end after the idle timeout. Changing an instance that is already in use has no effect.
+ *
+ * @since 0.0.11
+ */
+public class PlatformPoolConfig {
+
+    /**
+     * What to do with a task when all threads are busy and the queue is full
+     */
+    public enum Overflow {
+        /**
+         * Throw {@link java.util.concurrent.RejectedExecutionException} from {@link Thread#start()} or
+         * {@link java.util.concurrent.ExecutorService#execute(Runnable)}
+         */
+        REJECT,
+
+        /**
+         * Run the task in the thread that starts it, which slows the producer down
+         */
+        CALLER_RUNS,
+
+        /**
+         * Block the thread that starts the task until the queue has room
+         */
+        BLOCK,
+    }
+
+    private int size = 64;
+    private Duration idleTimeout = Duration.ofSeconds(60);
+    private boolean prestart;
+    private int queueCapacity = 10_000;
+    private Overflow overflow = Overflow.BLOCK;
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @param size maximum number of pool threads. Default is 64
+     * @return this
+     */
+    public PlatformPoolConfig size(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size must be at least 1");
+        }
+        this.size = size;
+        return this;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    /**
+     * @param idleTimeout time after which an idle pool thread ends. Default is 60 seconds
+     * @return this
+     */
+    public PlatformPoolConfig idleTimeout(Duration idleTimeout) {
+        if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+            throw new IllegalArgumentException("idleTimeout must be positive");
+        }
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    public boolean isPrestart() {
+        return prestart;
+    }
+
+    /**
+     * @param prestart true to start all pool threads when the pool is created, instead of on demand. Prestarted
+     *                 threads still end after the idle timeout. Default is false
+     * @return this
+     */
+    public PlatformPoolConfig prestart(boolean prestart) {
+        this.prestart = prestart;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * @param queueCapacity maximum number of tasks waiting for a pool thread, {@link Integer#MAX_VALUE} for
+     *                      unbounded. Default is 10000
+     * @return this
+     */
+    public PlatformPoolConfig queueCapacity(int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1");
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * @param overflow what to do when the queue is full. Default is {@link Overflow#BLOCK}
+     * @return this
+     */
+    public PlatformPoolConfig overflow(Overflow overflow) {
+        this.overflow = Objects.requireNonNull(overflow);
+        return this;
+    }
+}
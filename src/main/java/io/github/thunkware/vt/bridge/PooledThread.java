@@ -0,0 +1,110 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Handle for a task run in a pool, created by the thread factory of the executors of
+ * {@link CompatibilityPolicy#BOUNDED_PLATFORM_POOL} and {@link CompatibilityPolicy#WORK_STEALING_POOL}. Starting the
+ * handle submits the task to the pool.
+ *
+ * <p>
+ * The handle itself is never started, so {@link Thread#isAlive()} is always false and {@link Thread#join()} returns
+ * immediately: {@link Thread#join()} and {@link Thread#isAlive()} are final, so it is never returned to callers that
+ * may join it, only used by executors that track their tasks themselves. While the task runs, the pool thread takes the
+ * name and context class loader of the handle, an uncaught exception goes to the handler of the handle, and
+ * {@link #interrupt()} interrupts the task.
+ *
+ * <p>
+ * The handle is created with a fixed name rather than a numbered one, which takes a global lock on Java 8, and the
+ * pool thread is only renamed when the thread factory named the handle.
+ */
+final class PooledThread extends Thread {
+
+    private static final String UNNAMED = "pooled-task";
+
+    private final Executor pool;
+    private final Runnable task;
+    // guards carrier and interrupted, the monitor of a Thread is used by join
+    private final Object lock = new Object();
+    private Thread carrier;
+    private boolean interrupted;
+    private boolean started;
+
+    PooledThread(Executor pool, Runnable task) {
+        super(UNNAMED);
+        this.pool = pool;
+        this.task = task;
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            if (started) {
+                throw new IllegalThreadStateException("Thread already started");
+            }
+            started = true;
+        }
+        pool.execute(this::runInPool);
+    }
+
+    @Override
+    public void run() {
+        task.run();
+    }
+
+    @Override
+    public void interrupt() {
+        synchronized (lock) {
+            interrupted = true;
+            if (carrier != null) {
+                carrier.interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isInterrupted() {
+        synchronized (lock) {
+            return carrier != null ? carrier.isInterrupted() : interrupted;
+        }
+    }
+
+    private void runInPool() {
+        Thread current = Thread.currentThread();
+        String name = getName();
+        boolean rename = !UNNAMED.equals(name);
+        String carrierName = null;
+        if (rename) {
+            carrierName = current.getName();
+            current.setName(name);
+        }
+        ClassLoader carrierClassLoader = current.getContextClassLoader();
+        ClassLoader contextClassLoader = getContextClassLoader();
+        if (contextClassLoader != carrierClassLoader) {
+            current.setContextClassLoader(contextClassLoader);
+        }
+        synchronized (lock) {
+            carrier = current;
+            if (interrupted) {
+                current.interrupt();
+            }
+        }
+        try {
+            task.run();
+        } catch (Throwable e) {
+            getUncaughtExceptionHandler().uncaughtException(this, e);
+        } finally {
+            synchronized (lock) {
+                carrier = null;
+            }
+            // an interrupt of this task must not leak into the next task of the pool thread
+            Thread.interrupted();
+            if (contextClassLoader != carrierClassLoader) {
+                current.setContextClassLoader(carrierClassLoader);
+            }
+            if (rename) {
+                current.setName(carrierName);
+            }
+        }
+    }
+}
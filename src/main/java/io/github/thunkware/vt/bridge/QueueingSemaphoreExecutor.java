@@ -0,0 +1,55 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Executor that limits concurrency to a number of semaphore permits.
+ *
+ * <p>
+ * Unlike {@link SemaphoreExecutor}, which acquires the permit inside the task, a task that cannot get a permit
+ * does not get a thread either: it waits in a lock-free queue and is handed to the delegate executor
+ * only when a permit frees up. A burst of queued tasks costs queue nodes, not parked (platform) threads.
+ *
+ * @since 0.0.11
+ */
+public final class QueueingSemaphoreExecutor extends AbstractQueueingExecutor {
+
+    private final Semaphore semaphore;
+
+    public QueueingSemaphoreExecutor(ExecutorService delegate, int permits) {
+        this(delegate, new Semaphore(permits));
+    }
+
+    public QueueingSemaphoreExecutor(ExecutorService delegate, Semaphore semaphore) {
+        this(delegate, semaphore, MetricsSupport.defaultMetrics());
+    }
+
+    public QueueingSemaphoreExecutor(ExecutorService delegate, int permits, ExecutorMetrics metrics) {
+        this(delegate, new Semaphore(permits), metrics);
+    }
+
+    public QueueingSemaphoreExecutor(ExecutorService delegate, Semaphore semaphore, ExecutorMetrics metrics) {
+        super(delegate, metrics);
+        this.semaphore = Objects.requireNonNull(semaphore);
+        bindAvailablePermits(semaphore::availablePermits);
+    }
+
+    @Override
+    boolean tryAcquirePermit() {
+        return semaphore.tryAcquire();
+    }
+
+    @Override
+    void releasePermit() {
+        semaphore.release();
+    }
+
+    /**
+     * @return number of permits currently available
+     */
+    public int availablePermits() {
+        return semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.github.thunkware.vt.bridge.ThreadProviderFactory.getThreadProvider;
+
+/**
+ * Executor that limits the rate at which tasks are started, in tasks per second, rather than the number of running
+ * tasks. Use it to stay within the per-second quota of a downstream API.
+ *
+ * <p>
+ * The rate is enforced with a token bucket that holds up to {@code burst} tokens and refills one token every
+ * {@code 1 / permitsPerSecond} seconds. The bucket is a single {@link AtomicLong} (the theoretical arrival time of
+ * the next task, as in GCRA), so taking a token is one compare-and-set and refill needs no timer.
+ *
+ * <p>
+ * Tasks that cannot get a token wait in a queue, without a thread. While tasks are waiting, a single waker thread
+ * sleeps until the next token is due and then admits them. The waker is a virtual thread on Java 21+ and a daemon
+ * platform thread on Java 8+, so a backlog of any size costs at most one parked thread.
+ *
+ * @since 0.0.11
+ */
+public final class RateLimitedExecutor extends AbstractQueueingExecutor {
+
+    private static final boolean VIRTUAL_WAKER = ThreadProviderFactory.isJava21();
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    // theoretical arrival time: a token is available when it is at most toleranceNanos ahead of now
+    private final AtomicLong tat;
+    private final AtomicBoolean wakeupScheduled = new AtomicBoolean();
+    private volatile Thread waker;
+    private volatile boolean wakeAgain;
+
+    /**
+     * @param delegate         executor that runs the tasks
+     * @param permitsPerSecond number of tasks started per second
+     */
+    public RateLimitedExecutor(ExecutorService delegate, double permitsPerSecond) {
+        this(delegate, permitsPerSecond, 1);
+    }
+
+    /**
+     * @param delegate         executor that runs the tasks
+     * @param permitsPerSecond number of tasks started per second
+     * @param burst            number of tasks that can be started at once after the executor was idle
+     */
+    public RateLimitedExecutor(ExecutorService delegate, double permitsPerSecond, int burst) {
+        this(delegate, permitsPerSecond, burst, MetricsSupport.defaultMetrics());
+    }
+
+    /**
+     * @param delegate         executor that runs the tasks
+     * @param permitsPerSecond number of tasks started per second
+     * @param burst            number of tasks that can be started at once after the executor was idle
+     * @param metrics          metrics to report to. Can be null
+     */
+    public RateLimitedExecutor(ExecutorService delegate, double permitsPerSecond, int burst, ExecutorMetrics metrics) {
+        super(delegate, metrics);
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / permitsPerSecond));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.tat = new AtomicLong(System.nanoTime() - toleranceNanos);
+        bindAvailablePermits(this::availablePermits);
+    }
+
+    @Override
+    boolean tryAcquirePermit() {
+        for (;;) {
+            long now = System.nanoTime();
+            long current = tat.get();
+            long delay = current - toleranceNanos - now;
+            if (delay > 0) {
+                scheduleWakeup(delay);
+                return false;
+            }
+            long next = Math.max(current, now) + intervalNanos;
+            if (tat.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    void releasePermit() {
+        // tokens are consumed by starting a task, not returned when it ends
+    }
+
+    @Override
+    void returnUnusedPermit() {
+        tat.addAndGet(-intervalNanos);
+    }
+
+    private void scheduleWakeup(long delayNanos) {
+        if (!wakeupScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        if (Thread.currentThread() == waker) {
+            wakeAgain = true;
+            return;
+        }
+
+        Runnable task = () -> {
+            waker = Thread.currentThread();
+            long delay = delayNanos;
+            do {
+                wakeAgain = false;
+                LockSupport.parkNanos(this, delay);
+                wakeupScheduled.set(false);
+                dispatch();
+                delay = tat.get() - toleranceNanos - System.nanoTime();
+            } while (wakeAgain);
+        };
+        Thread thread;
+        if (VIRTUAL_WAKER) {
+            thread = getThreadProvider().unstartedVirtualThread(task);
+        } else {
+            thread = new Thread(task, "RateLimitedExecutor-waker");
+            thread.setDaemon(true);
+        }
+        thread.start();
+    }
+
+    /**
+     * @return number of tasks that can be started right now without waiting
+     */
+    public int availablePermits() {
+        long ahead = tat.get() - System.nanoTime();
+        if (ahead > toleranceNanos) {
+            return 0;
+        }
+        return (int) ((toleranceNanos - Math.max(0, ahead)) / intervalNanos) + 1;
+    }
+}
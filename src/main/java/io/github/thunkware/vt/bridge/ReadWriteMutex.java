@@ -0,0 +1,52 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Mutex that lets many readers run at once but a writer run alone, on Java 8+:
+ * <pre>{@code
+ * private final ReadWriteMutex mutex = ReadWriteMutex.newReadWriteMutex();
+ *
+ * Value value = mutex.read().get(() -> cache.get(key));
+ * mutex.write().run(() -> cache.put(key, value));
+ * }</pre>
+ *
+ * <p>
+ * Monitors have no shared mode, so it is a {@link ReentrantReadWriteLock} on every JVM, which parks instead of
+ * pinning virtual threads.
+ *
+ * @since 0.0.11
+ */
+public final class ReadWriteMutex {
+
+    private final Mutex read;
+    private final Mutex write;
+
+    private ReadWriteMutex() {
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.read = new Mutex.LockMutex(lock.readLock());
+        this.write = new Mutex.LockMutex(lock.writeLock());
+    }
+
+    /**
+     * @return a new ReadWriteMutex
+     */
+    public static ReadWriteMutex newReadWriteMutex() {
+        return new ReadWriteMutex();
+    }
+
+    /**
+     * @return Mutex shared by the readers
+     */
+    public Mutex read() {
+        return read;
+    }
+
+    /**
+     * @return Mutex held by one writer at a time, and by no reader meanwhile. A writer may read, a reader may not
+     * write
+     */
+    public Mutex write() {
+        return write;
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor that runs the tasks implementing a marker interface in one executor and the other tasks in another.
+ * The futures of submitted marked tasks keep the marker, so they are routed the same way.
+ *
+ * <p>
+ * The executor of the marked tasks is a plain JDK pool, so they are wrapped with the {@link ScopedContext} of the
+ * caller here; the other executor is one of the bridge, which does it itself.
+ */
+abstract class RoutingExecutor extends AbstractExecutorService {
+
+    private final Class<?> marker;
+    private final ExecutorService markedExecutor;
+    private final ExecutorService otherExecutor;
+
+    RoutingExecutor(Class<?> marker, ExecutorService markedExecutor, ExecutorService otherExecutor) {
+        this.marker = marker;
+        this.markedExecutor = markedExecutor;
+        this.otherExecutor = otherExecutor;
+    }
+
+    private boolean isMarked(Object task) {
+        return marker.isInstance(task)
+                || task instanceof MarkedFutureTask && ((MarkedFutureTask<?>) task).marker == marker;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (isMarked(Objects.requireNonNull(command))) {
+            markedExecutor.execute(ScopedContext.wrap(command));
+        } else {
+            otherExecutor.execute(command);
+        }
+    }
+
+    /**
+     * @return future of a task to run with the marked tasks, to pass to {@link #execute(Runnable)}
+     */
+    <T> RunnableFuture<T> newMarkedTask(Callable<T> callable) {
+        return new MarkedFutureTask<>(marker, callable);
+    }
+
+    <T> RunnableFuture<T> newMarkedTask(Runnable runnable, T value) {
+        return new MarkedFutureTask<>(marker, runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        return marker.isInstance(runnable) ? newMarkedTask(runnable, value) : super.newTaskFor(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        return marker.isInstance(callable) ? newMarkedTask(callable) : super.newTaskFor(callable);
+    }
+
+    @Override
+    public void shutdown() {
+        markedExecutor.shutdown();
+        otherExecutor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks = new ArrayList<>();
+        for (Runnable task : markedExecutor.shutdownNow()) {
+            tasks.add(ScopedContext.unwrap(task));
+        }
+        tasks.addAll(otherExecutor.shutdownNow());
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return markedExecutor.isShutdown() && otherExecutor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return markedExecutor.isTerminated() && otherExecutor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!markedExecutor.awaitTermination(timeout, unit)) {
+            return false;
+        }
+        return otherExecutor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    // keeps the marker of a submitted task
+    private static final class MarkedFutureTask<T> extends FutureTask<T> {
+        private final Class<?> marker;
+
+        MarkedFutureTask(Class<?> marker, Callable<T> callable) {
+            super(callable);
+            this.marker = marker;
+        }
+
+        MarkedFutureTask(Class<?> marker, Runnable runnable, T result) {
+            super(runnable, result);
+            this.marker = marker;
+        }
+    }
+}
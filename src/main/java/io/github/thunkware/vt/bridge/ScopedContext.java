@@ -0,0 +1,451 @@
+package io.github.thunkware.vt.bridge;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A value that is bound for the duration of a call, in Java 8+ VM. Modelled after ScopedValue from Java 25:
+ * <pre>{@code
+ * static final ScopedContext<String> TENANT = ScopedContext.newInstance();
+ *
+ * ScopedContext.where(TENANT, "acme").run(() -> handle(request));
+ * ...
+ * String tenant = TENANT.get();
+ * }</pre>
+ *
+ * <p>
+ * Bindings are immutable and visible to the tasks forked while they are bound through the bridge: threads from
+ * {@link ThreadTool#startVirtualThread(Runnable)} and {@link ThreadTool#unstartedVirtualThread(Runnable)},
+ * tasks of the executors created by {@link ExecutorTool} and subtasks of a {@link StructuredScope}.
+ * The child sees the bindings captured when the task was submitted, not the ones of the thread that runs it.
+ * Unlike InheritableThreadLocal, nothing is copied into threads that are created while no value is bound, and
+ * a capture is a single reference to an immutable snapshot, however many values are bound.
+ *
+ * <p>
+ * On Java 25+ the snapshot is carried by a single java.lang.ScopedValue. On older JVMs it is held in a
+ * ThreadLocal for the duration of the call.
+ *
+ * @param <T> type of the value
+ * @since 0.0.11
+ */
+public final class ScopedContext<T> {
+
+    private static final Storage STORAGE = Storage.create();
+
+    private ScopedContext() {
+    }
+
+    /**
+     * @param <T> type of the value
+     * @return a new key, which has no value bound
+     */
+    public static <T> ScopedContext<T> newInstance() {
+        return new ScopedContext<>();
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value to bind. Can be null
+     * @param <T>   type of the value
+     * @return a carrier that binds the value to the key while running an operation
+     */
+    public static <T> Carrier where(ScopedContext<T> key, T value) {
+        return new Carrier(Objects.requireNonNull(key), value, null);
+    }
+
+    /**
+     * @return value bound to this key by the current thread
+     * @throws NoSuchElementException if no value is bound
+     */
+    public T get() {
+        Snapshot snapshot = find();
+        if (snapshot == null) {
+            throw new NoSuchElementException("ScopedContext not bound");
+        }
+        return value(snapshot);
+    }
+
+    /**
+     * @return true if a value is bound to this key by the current thread
+     */
+    public boolean isBound() {
+        return find() != null;
+    }
+
+    /**
+     * @param other value to return if no value is bound
+     * @return value bound to this key, or other
+     */
+    public T orElse(T other) {
+        Snapshot snapshot = find();
+        return snapshot == null ? other : value(snapshot);
+    }
+
+    /**
+     * @param exceptionSupplier supplies the exception to throw if no value is bound
+     * @param <X>               type of the exception
+     * @return value bound to this key
+     * @throws X if no value is bound
+     */
+    public <X extends Throwable> T orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+        Snapshot snapshot = find();
+        if (snapshot == null) {
+            throw exceptionSupplier.get();
+        }
+        return value(snapshot);
+    }
+
+    private Snapshot find() {
+        for (Snapshot snapshot = STORAGE.current(); snapshot != null; snapshot = snapshot.parent) {
+            if (snapshot.key == this) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T value(Snapshot snapshot) {
+        return (T) snapshot.value;
+    }
+
+    /**
+     * Wraps a task so that it runs with the values bound by the current thread. Use it to pass bindings to
+     * tasks that are handed to executors not created by the bridge.
+     *
+     * @param task the task
+     * @return the wrapped task, or task itself if no value is bound
+     */
+    public static Runnable wrap(Runnable task) {
+        Objects.requireNonNull(task);
+        Snapshot snapshot = STORAGE.current();
+        if (snapshot == null || task instanceof Captured) {
+            return task;
+        }
+        return new Captured(snapshot, task);
+    }
+
+    /**
+     * Wraps a task so that it runs with the values bound by the current thread. Use it to pass bindings to
+     * tasks that are handed to executors not created by the bridge.
+     *
+     * @param task the task
+     * @param <V>  result type of the task
+     * @return the wrapped task, or task itself if no value is bound
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        Objects.requireNonNull(task);
+        Snapshot snapshot = STORAGE.current();
+        if (snapshot == null) {
+            return task;
+        }
+        return () -> STORAGE.call(snapshot, task);
+    }
+
+    /**
+     * Wraps a function so that it runs with the values bound by the current thread, like {@link #wrap(Callable)},
+     * e.g. for the mapper of a stream whose elements are mapped in other threads.
+     */
+    static <T, R> Function<T, R> wrap(Function<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        Snapshot snapshot = STORAGE.current();
+        if (snapshot == null) {
+            return function::apply;
+        }
+        return element -> {
+            Object[] result = new Object[1];
+            STORAGE.run(snapshot, () -> result[0] = function.apply(element));
+            @SuppressWarnings("unchecked")
+            R r = (R) result[0];
+            return r;
+        };
+    }
+
+    /**
+     * @param task a task, possibly returned by {@link #wrap(Runnable)}
+     * @return the task given to {@link #wrap(Runnable)}
+     */
+    static Runnable unwrap(Runnable task) {
+        return task instanceof Captured ? ((Captured) task).task : task;
+    }
+
+    /**
+     * Runs runner with the bindings captured by {@link #wrap(Runnable)}, if any, passing it the unwrapped task.
+     * Lets executors observe the original task while it runs with its bindings.
+     */
+    static void run(Runnable task, Consumer<Runnable> runner) {
+        if (task instanceof Captured) {
+            Captured captured = (Captured) task;
+            STORAGE.run(captured.snapshot, () -> runner.accept(captured.task));
+        } else {
+            runner.accept(task);
+        }
+    }
+
+    /**
+     * Hands a task to an executor with no value bound, so that an executor which captures bindings when the task is
+     * submitted does not capture those of the current thread. Used by executors that submit queued tasks to a delegate
+     * from whatever thread releases a permit.
+     */
+    static void executeUnbound(Executor executor, Runnable task) {
+        if (STORAGE.current() == null) {
+            executor.execute(task);
+        } else {
+            STORAGE.run(null, () -> executor.execute(task));
+        }
+    }
+
+    /**
+     * Binds values to keys while running an operation. Carriers are immutable, {@link #where} returns a new carrier.
+     */
+    public static final class Carrier {
+        private final ScopedContext<?> key;
+        private final Object value;
+        private final Carrier previous;
+
+        private Carrier(ScopedContext<?> key, Object value, Carrier previous) {
+            this.key = key;
+            this.value = value;
+            this.previous = previous;
+        }
+
+        /**
+         * @param key   the key
+         * @param value the value to bind. Can be null
+         * @param <T>   type of the value
+         * @return a new carrier that binds the value to the key in addition to the bindings of this carrier
+         */
+        public <T> Carrier where(ScopedContext<T> key, T value) {
+            return new Carrier(Objects.requireNonNull(key), value, this);
+        }
+
+        /**
+         * Runs an operation with the values of this carrier bound. The bindings end when the operation returns.
+         *
+         * @param op the operation
+         */
+        public void run(Runnable op) {
+            Objects.requireNonNull(op);
+            STORAGE.run(bind(STORAGE.current()), op);
+        }
+
+        /**
+         * Calls an operation with the values of this carrier bound. The bindings end when the operation returns.
+         *
+         * @param op  the operation
+         * @param <R> result type of the operation
+         * @return result of the operation
+         * @throws Exception thrown by the operation
+         */
+        public <R> R call(Callable<? extends R> op) throws Exception {
+            Objects.requireNonNull(op);
+            return STORAGE.call(bind(STORAGE.current()), op);
+        }
+
+        /**
+         * Gets a result with the values of this carrier bound. The bindings end when the supplier returns.
+         *
+         * @param op  the supplier
+         * @param <R> result type of the supplier
+         * @return result of the supplier
+         */
+        public <R> R get(Supplier<? extends R> op) {
+            Objects.requireNonNull(op);
+            Object[] result = new Object[1];
+            STORAGE.run(bind(STORAGE.current()), () -> result[0] = op.get());
+            @SuppressWarnings("unchecked")
+            R r = (R) result[0];
+            return r;
+        }
+
+        private Snapshot bind(Snapshot parent) {
+            Snapshot bound = previous == null ? parent : previous.bind(parent);
+            return new Snapshot(key, value, bound);
+        }
+    }
+
+    // immutable bindings of a thread, most recent first. Shadowed bindings stay in the chain but are never found
+    private static final class Snapshot {
+        private final ScopedContext<?> key;
+        private final Object value;
+        private final Snapshot parent;
+
+        Snapshot(ScopedContext<?> key, Object value, Snapshot parent) {
+            this.key = key;
+            this.value = value;
+            this.parent = parent;
+        }
+    }
+
+    private static final class Captured implements Runnable {
+        private final Snapshot snapshot;
+        private final Runnable task;
+
+        Captured(Snapshot snapshot, Runnable task) {
+            this.snapshot = snapshot;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            STORAGE.run(snapshot, task);
+        }
+    }
+
+    private abstract static class Storage {
+
+        static Storage create() {
+            if (javaVersion() >= 25) {
+                try {
+                    return new ScopedValueStorage();
+                } catch (RuntimeException | LinkageError e) {
+                    // fall back
+                }
+            }
+            return new ThreadLocalStorage();
+        }
+
+        private static int javaVersion() {
+            String version = System.getProperty("java.specification.version", "1.8");
+            if (version.startsWith("1.")) {
+                version = version.substring(2);
+            }
+            try {
+                return Integer.parseInt(version);
+            } catch (NumberFormatException e) {
+                return 8;
+            }
+        }
+
+        abstract Snapshot current();
+
+        abstract void run(Snapshot snapshot, Runnable op);
+
+        <R> R call(Snapshot snapshot, Callable<? extends R> op) throws Exception {
+            Object[] result = new Object[1];
+            Exception[] failure = new Exception[1];
+            run(snapshot, () -> {
+                try {
+                    result[0] = op.call();
+                } catch (Exception e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            @SuppressWarnings("unchecked")
+            R r = (R) result[0];
+            return r;
+        }
+    }
+
+    private static final class ThreadLocalStorage extends Storage {
+        private final ThreadLocal<Snapshot> current = new ThreadLocal<>();
+
+        @Override
+        Snapshot current() {
+            return current.get();
+        }
+
+        @Override
+        void run(Snapshot snapshot, Runnable op) {
+            Snapshot previous = current.get();
+            current.set(snapshot);
+            try {
+                op.run();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        }
+
+        @Override
+        <R> R call(Snapshot snapshot, Callable<? extends R> op) throws Exception {
+            Snapshot previous = current.get();
+            current.set(snapshot);
+            try {
+                return op.call();
+            } finally {
+                if (previous == null) {
+                    current.remove();
+                } else {
+                    current.set(previous);
+                }
+            }
+        }
+    }
+
+    // compiled against Java 8, so java.lang.ScopedValue is used through method handles
+    private static final class ScopedValueStorage extends Storage {
+        // ScopedValue.orElse does not accept null
+        private static final Snapshot UNBOUND = new Snapshot(null, null, null);
+
+        // static final and erased to Object, so that C2 constant-folds them and inlines invokeExact
+        // (Object)Object, ScopedValue.orElse bound to the ScopedValue
+        private static final MethodHandle OR_ELSE;
+        // (Object)Object, ScopedValue.where bound to the ScopedValue
+        private static final MethodHandle WHERE;
+        // (Object, Runnable)void, ScopedValue.Carrier.run
+        private static final MethodHandle RUN;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+                Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+
+                Object scopedValue = lookup.findStatic(scopedValueClass, "newInstance",
+                        MethodType.methodType(scopedValueClass)).invoke();
+                OR_ELSE = lookup.findVirtual(scopedValueClass, "orElse",
+                                MethodType.methodType(Object.class, Object.class))
+                        .bindTo(scopedValue)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                WHERE = MethodHandles.insertArguments(lookup.findStatic(scopedValueClass, "where",
+                                MethodType.methodType(carrierClass, scopedValueClass, Object.class)), 0, scopedValue)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                RUN = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                        .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+            } catch (Throwable e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        @Override
+        Snapshot current() {
+            try {
+                Object snapshot = (Object) OR_ELSE.invokeExact((Object) UNBOUND);
+                return snapshot == UNBOUND ? null : (Snapshot) snapshot;
+            } catch (Throwable e) {
+                throw sneakyThrow(e);
+            }
+        }
+
+        @Override
+        void run(Snapshot snapshot, Runnable op) {
+            try {
+                Object carrier = (Object) WHERE.invokeExact((Object) snapshot);
+                RUN.invokeExact(carrier, op);
+            } catch (Throwable e) {
+                throw sneakyThrow(e);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <E extends Throwable> RuntimeException sneakyThrow(Throwable e) throws E {
+            throw (E) e;
+        }
+    }
+}
@@ -1,13 +1,25 @@
 package io.github.thunkware.vt.bridge;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * Executor that limits concurrency to a number of semaphore permits
+ * <p>
+ * The permit is acquired inside the task, so every task waiting for a permit occupies a thread.
+ * See {@link QueueingSemaphoreExecutor} for an executor that queues waiting tasks instead.
+ * <p>
+ * An optional execution timeout, for the whole executor or per task with {@link #submit(Callable, Duration)},
+ * bounds how long a task runs once it holds a permit. When it elapses, the thread running the task is interrupted
+ * and a future returned by {@code submit} completes with a {@link TimeoutException} right away. The permit is
+ * released only when the task actually ends, so a task that ignores interrupts still holds it.
+ * Futures of {@code invokeAll} and {@code invokeAny} complete with the {@link TimeoutException} when the task ends.
+ * The deadlines are kept by a shared {@link HashedWheelTimer}, not a scheduled future per task.
  *
  * @since 0.05
  */
@@ -16,15 +28,20 @@ public class SemaphoreExecutor implements ExecutorService {
     private final ExecutorService delegate;
     private final Semaphore semaphore;
     private final SemaphoreAcquireStrategy acquireStrategy;
+    private final ExecutorMetrics metrics;
+    // zero without execution timeout
+    private final long executionTimeoutNanos;
 
     public SemaphoreExecutor(ExecutorService delegate, int permits) {
         this(delegate, new Semaphore(permits, true));
     }
 
     public SemaphoreExecutor(ExecutorService delegate, Semaphore semaphore) {
-        this.delegate = delegate;
-        this.semaphore = semaphore;
-        this.acquireStrategy = semaphore::acquire;
+        this(delegate, semaphore, MetricsSupport.defaultMetrics());
+    }
+
+    public SemaphoreExecutor(ExecutorService delegate, Semaphore semaphore, ExecutorMetrics metrics) {
+        this(delegate, semaphore, null, null, metrics);
     }
 
     public SemaphoreExecutor(ExecutorService delegate, int permits, Duration acquireTimeout) {
@@ -32,39 +49,154 @@ public class SemaphoreExecutor implements ExecutorService {
     }
 
     public SemaphoreExecutor(ExecutorService delegate, Semaphore semaphore, Duration acquireTimeout) {
+        this(delegate, semaphore, acquireTimeout, MetricsSupport.defaultMetrics());
+    }
+
+    public SemaphoreExecutor(ExecutorService delegate, Semaphore semaphore, Duration acquireTimeout, ExecutorMetrics metrics) {
+        this(delegate, semaphore, acquireTimeout, null, metrics);
+    }
+
+    /**
+     * @param delegate         executor running the tasks
+     * @param semaphore        semaphore limiting the running tasks
+     * @param acquireTimeout   time to wait for a permit, or null to wait without timeout
+     * @param executionTimeout time a task may run once it holds a permit, or null to run without timeout
+     * @param metrics          metrics of the tasks, or null
+     * @since 0.0.11
+     */
+    public SemaphoreExecutor(ExecutorService delegate, Semaphore semaphore, Duration acquireTimeout,
+                             Duration executionTimeout, ExecutorMetrics metrics) {
         this.delegate = delegate;
         this.semaphore = semaphore;
-        this.acquireStrategy = () -> this.acquireSempahoreWithTimeout(acquireTimeout);
+        this.acquireStrategy = acquireTimeout == null
+                ? semaphore::acquire
+                : () -> this.acquireSempahoreWithTimeout(acquireTimeout);
+        this.executionTimeoutNanos = executionTimeout == null ? 0 : toTimeoutNanos(executionTimeout);
+        this.metrics = bind(metrics, semaphore);
+    }
+
+    private static long toTimeoutNanos(Duration executionTimeout) {
+        if (executionTimeout.isNegative() || executionTimeout.isZero()) {
+            throw new IllegalArgumentException("executionTimeout must be positive");
+        }
+        return executionTimeout.toNanos();
+    }
+
+    private static ExecutorMetrics bind(ExecutorMetrics metrics, Semaphore semaphore) {
+        if (metrics != null) {
+            metrics.bindAvailablePermits(semaphore::availablePermits);
+        }
+        return metrics;
     }
 
     private <T> List<Callable<T>> toSemaphoreCallables(Collection<? extends Callable<T>> callables) {
-        return callables.stream()
-                .map(this::toSemaphoreCallable)
-                .collect(Collectors.toList());
+        List<Callable<T>> semaphoreCallables = new ArrayList<>(callables.size());
+        for (Callable<T> callable : callables) {
+            semaphoreCallables.add(toSemaphoreCallable(callable));
+        }
+        return semaphoreCallables;
     }
 
     private <T> Callable<T> toSemaphoreCallable(Callable<T> callable) {
+        long submittedNanos = MetricsSupport.onSubmitted(metrics);
         return () -> {
-            acquireStrategy.call();
+            acquire(submittedNanos);
             try {
-                return callable.call();
+                long startNanos = MetricsSupport.onStarted(metrics, submittedNanos);
+                T result;
+                try {
+                    result = callWithin(callable);
+                } catch (Exception | Error e) {
+                    MetricsSupport.onFailed(metrics, startNanos, e);
+                    throw e;
+                }
+                MetricsSupport.onCompleted(metrics, startNanos);
+                return result;
             } finally {
                 semaphore.release();
             }
         };
     }
 
-    private Runnable toSemaphoreRunnable(Runnable command) {
+    private Runnable toSemaphoreRunnable(Runnable command, long timeoutNanos) {
+        long submittedNanos = MetricsSupport.onSubmitted(metrics);
         return () -> {
-            acquireStrategy.call();
+            acquire(submittedNanos);
             try {
-                command.run();
+                long startNanos = MetricsSupport.onStarted(metrics, submittedNanos);
+                try {
+                    runWithin(command, timeoutNanos);
+                } catch (RuntimeException | Error e) {
+                    MetricsSupport.onFailed(metrics, startNanos, e);
+                    throw e;
+                }
+                MetricsSupport.onFinished(metrics, startNanos, command);
             } finally {
                 semaphore.release();
             }
         };
     }
 
+    private <T> T callWithin(Callable<T> callable) throws Exception {
+        if (executionTimeoutNanos == 0) {
+            return callable.call();
+        }
+        Deadline deadline = Deadline.start(null, executionTimeoutNanos);
+        T result;
+        try {
+            result = callable.call();
+        } catch (Exception | Error e) {
+            if (deadline.end()) {
+                // most likely a reaction to the interrupt of the deadline
+                TimeoutException timeout = deadline.newTimeoutException();
+                timeout.addSuppressed(e);
+                throw timeout;
+            }
+            throw e;
+        }
+        if (deadline.end()) {
+            throw deadline.newTimeoutException();
+        }
+        return result;
+    }
+
+    private static void runWithin(Runnable command, long timeoutNanos) {
+        if (timeoutNanos == 0) {
+            command.run();
+            return;
+        }
+        Deadline deadline = Deadline.start(command instanceof DeadlineTask ? (DeadlineTask<?>) command : null,
+                timeoutNanos);
+        try {
+            command.run();
+        } finally {
+            deadline.end();
+        }
+    }
+
+    private <T> Future<T> submitWithin(DeadlineTask<T> task, long timeoutNanos) {
+        Runnable runnable = toSemaphoreRunnable(task, timeoutNanos);
+        delegate.execute(() -> {
+            try {
+                runnable.run();
+            } catch (RuntimeException | Error e) {
+                // the permit was not acquired, so the task never ran to complete its future
+                task.fail(e);
+            }
+        });
+        return task;
+    }
+
+    private void acquire(long submittedNanos) {
+        try {
+            acquireStrategy.call();
+        } catch (RuntimeException e) {
+            // the task ends without running, report it as started and failed so it is not counted as queued forever
+            MetricsSupport.onFailed(metrics, MetricsSupport.onStarted(metrics, submittedNanos), e);
+            throw e;
+        }
+    }
+
     private void acquireSempahoreWithTimeout(Duration acquireTimeout) throws InterruptedException, TimeoutException {
         boolean isAcquired = semaphore.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
 
@@ -75,7 +207,7 @@ public class SemaphoreExecutor implements ExecutorService {
 
     @Override
     public void execute(Runnable command) {
-        delegate.execute(toSemaphoreRunnable(command));
+        delegate.execute(toSemaphoreRunnable(command, executionTimeoutNanos));
     }
 
     @Override
@@ -105,17 +237,58 @@ public class SemaphoreExecutor implements ExecutorService {
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
+        if (executionTimeoutNanos != 0) {
+            return submitWithin(new DeadlineTask<>(task), executionTimeoutNanos);
+        }
         return delegate.submit(toSemaphoreCallable(task));
     }
 
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return delegate.submit(toSemaphoreRunnable(task), result);
+        if (executionTimeoutNanos != 0) {
+            return submitWithin(new DeadlineTask<>(task, result), executionTimeoutNanos);
+        }
+        return delegate.submit(toSemaphoreRunnable(task, 0), result);
     }
 
     @Override
     public Future<?> submit(Runnable task) {
-        return delegate.submit(toSemaphoreRunnable(task));
+        if (executionTimeoutNanos != 0) {
+            return submitWithin(new DeadlineTask<>(task, null), executionTimeoutNanos);
+        }
+        return delegate.submit(toSemaphoreRunnable(task, 0));
+    }
+
+    /**
+     * Submits a task that may run at most executionTimeout once it holds a permit, instead of the execution timeout
+     * of the executor. When it elapses, the thread running the task is interrupted and the returned future completes
+     * with a {@link TimeoutException}.
+     *
+     * @param task             task to run
+     * @param executionTimeout time the task may run once it holds a permit
+     * @param <T>              result type
+     * @return future of the task
+     * @since 0.0.11
+     */
+    public <T> Future<T> submit(Callable<T> task, Duration executionTimeout) {
+        return submitWithin(new DeadlineTask<>(Objects.requireNonNull(task)), toTimeoutNanos(executionTimeout));
+    }
+
+    /**
+     * Submits tasks together and returns their aggregate handle. Rather than a thread per task that waits for a
+     * permit, the tasks run one after the other in as many threads as there are available permits, and more threads
+     * are started when permits free up. As with {@link #invokeAll}, a task that exceeds the execution timeout
+     * completes with a {@link TimeoutException} when it ends.
+     *
+     * @param tasks tasks to run
+     * @param <T>   result type
+     * @return TaskBatch of the tasks
+     * @since 0.0.11
+     */
+    public <T> TaskBatch<T> submitAll(Collection<? extends Callable<T>> tasks) {
+        TaskBatch<T> batch = new TaskBatch<>(tasks, this::toSemaphoreCallable);
+        batch.start(delegate, semaphore::availablePermits);
+        return batch;
     }
 
     @Override
@@ -139,6 +312,99 @@ public class SemaphoreExecutor implements ExecutorService {
         return delegate.invokeAny(toSemaphoreCallables(tasks), timeout, unit);
     }
 
+    // future that the deadline can complete with a TimeoutException while the task is still running
+    private static final class DeadlineTask<T> extends MetricsSupport.ObservedTask<T> {
+
+        DeadlineTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        DeadlineTask(Runnable runnable, T result) {
+            super(runnable, result);
+        }
+
+        void fail(Throwable e) {
+            setException(e);
+        }
+    }
+
+    // interrupts the thread running a task when the execution timeout elapses, on the timer thread
+    private static final class Deadline implements Runnable {
+
+        private static final int RUNNING = 0;
+        private static final int ENDED = 1;
+        private static final int INTERRUPTING = 2;
+        private static final int INTERRUPTED = 3;
+        // expired while an interrupt, e.g. of shutdownNow, was already pending, which is left to the thread
+        private static final int EXPIRED = 4;
+
+        private static final AtomicIntegerFieldUpdater<Deadline> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Deadline.class, "state");
+
+        private final DeadlineTask<?> task;
+        private final long timeoutNanos;
+        private final Thread runner;
+        private HashedWheelTimer.Timeout timeout;
+        // ENDED once the task ended, so that a late interrupt cannot hit the next task of the thread
+        private volatile int state;
+
+        private Deadline(DeadlineTask<?> task, long timeoutNanos) {
+            this.task = task;
+            this.timeoutNanos = timeoutNanos;
+            this.runner = Thread.currentThread();
+        }
+
+        static Deadline start(DeadlineTask<?> task, long timeoutNanos) {
+            Deadline deadline = new Deadline(task, timeoutNanos);
+            deadline.timeout = HashedWheelTimer.shared().newTimeout(deadline, timeoutNanos, TimeUnit.NANOSECONDS);
+            return deadline;
+        }
+
+        @Override
+        public void run() {
+            if (task != null) {
+                task.fail(newTimeoutException());
+            }
+            if (!STATE.compareAndSet(this, RUNNING, INTERRUPTING)) {
+                return;
+            }
+            if (runner.isInterrupted()) {
+                state = EXPIRED;
+            } else {
+                runner.interrupt();
+                state = INTERRUPTED;
+            }
+        }
+
+        /**
+         * Clears the interrupt of the deadline, as the thread may be reused, but not one that was already pending
+         * when the deadline expired. An interrupt that arrives after the one of the deadline, before the task ends,
+         * cannot be told apart from it and is cleared too.
+         *
+         * @return true if the execution timeout elapsed while the task was running
+         */
+        boolean end() {
+            timeout.cancel();
+            if (STATE.compareAndSet(this, RUNNING, ENDED)) {
+                return false;
+            }
+            int current;
+            // the timer thread is between the CAS and the interrupt, for a few instructions
+            while ((current = state) == INTERRUPTING) {
+                Thread.yield();
+            }
+            if (current == INTERRUPTED) {
+                Thread.interrupted();
+            }
+            return true;
+        }
+
+        TimeoutException newTimeoutException() {
+            return new TimeoutException(String.format("Task not completed before the executionTimeout %s",
+                    Duration.ofNanos(timeoutNanos)));
+        }
+    }
+
     @FunctionalInterface
     private interface SemaphoreAcquireStrategy {
         void acquire() throws InterruptedException, TimeoutException;
@@ -0,0 +1,50 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static io.github.thunkware.vt.bridge.ThreadProviderFactory.getThreadProvider;
+
+/**
+ * Utility for working with java.util.stream and virtual threads in Java8+ VM. Convenience class for
+ * {@link ThreadProvider}
+ *
+ * @since 0.0.11
+ */
+public class StreamTool {
+
+    /**
+     * Maps the elements of a stream concurrently, each in a new virtual Thread on Java 21+ (or new platform thread
+     * on Java 8+), at most maxConcurrency at once, and returns the results in encounter order. Unlike a parallel
+     * stream, the mappings do not run in the common ForkJoinPool, so they may block on I/O.
+     *
+     * <p>
+     * The source is consumed lazily: an element is pulled only when fewer than maxConcurrency are being mapped or
+     * waiting to be consumed. If a mapper throws, the mappings still running are interrupted and the exception is
+     * rethrown to the consumer of the stream. Closing the returned stream interrupts the mappings still running,
+     * e.g. after a short-circuiting operation such as {@code findFirst()}, and closes the source:
+     * <pre>{@code
+     * try (Stream<Price> prices = StreamTool.mapConcurrent(products.stream(), 16, this::fetchPrice)) {
+     *     return prices.filter(Price::isDiscounted).findFirst();
+     * }
+     * }</pre>
+     *
+     * <p>
+     * On Java 24+ this is {@code stream.gather(Gatherers.mapConcurrent(maxConcurrency, mapper))}.
+     *
+     * @param stream         source stream
+     * @param maxConcurrency maximum number of elements mapped at once
+     * @param mapper         mapper of an element, typically I/O-bound
+     * @param <T>            type of the elements of the source
+     * @param <R>            type of the results
+     * @return sequential stream of the results
+     */
+    public static <T, R> Stream<R> mapConcurrent(Stream<T> stream, int maxConcurrency,
+                                                 Function<? super T, ? extends R> mapper) {
+        return getThreadProvider().mapConcurrent(stream, maxConcurrency, mapper);
+    }
+
+    private StreamTool() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,565 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.github.thunkware.vt.bridge.ThreadProviderFactory.getThreadProvider;
+
+/**
+ * Structured concurrency in Java 8+ VM, modelled after StructuredTaskScope from Java 21.
+ *
+ * <p>
+ * The owner thread opens a scope, {@link #fork forks} subtasks that each run in their own thread,
+ * {@link #join joins} and then {@link #close closes} the scope, usually in try-with-resources:
+ * <pre>{@code
+ * try (StructuredScope.ShutdownOnFailure scope = new StructuredScope.ShutdownOnFailure()) {
+ *     Subtask<String> user = scope.fork(() -> findUser());
+ *     Subtask<Integer> order = scope.fork(() -> fetchOrder());
+ *     scope.join().throwIfFailed();
+ *     return new Response(user.get(), order.get());
+ * }
+ * }</pre>
+ *
+ * <p>
+ * {@link #shutdown()} interrupts the threads of all unfinished subtasks and wakes up the owner, so
+ * {@link ShutdownOnFailure} cancels the siblings as soon as one subtask fails and {@link ShutdownOnSuccess}
+ * cancels them as soon as one subtask succeeds.
+ *
+ * <p>
+ * Subtasks run in virtual threads on Java 21+ and in platform threads on Java 8+, one thread per subtask.
+ * This class does not use the JDK StructuredTaskScope, which is a preview API up to Java 24 and changed
+ * shape in Java 25, so the behavior is the same on every JDK.
+ *
+ * @param <T> result type of the subtasks
+ * @since 0.0.11
+ */
+public class StructuredScope<T> implements AutoCloseable {
+
+    /**
+     * A subtask forked with {@link #fork(Callable)}
+     *
+     * @param <T> result type of the subtask
+     */
+    public interface Subtask<T> extends Supplier<T> {
+
+        /**
+         * State of a subtask
+         */
+        enum State {
+            /**
+             * The subtask has not completed, or completed after the scope was shut down
+             */
+            UNAVAILABLE,
+            /**
+             * The subtask completed with a result
+             */
+            SUCCESS,
+            /**
+             * The subtask failed with an exception
+             */
+            FAILED
+        }
+
+        /**
+         * @return the task given to {@link #fork(Callable)}
+         */
+        Callable<? extends T> task();
+
+        /**
+         * @return state of the subtask
+         */
+        State state();
+
+        /**
+         * @return result of the subtask
+         * @throws IllegalStateException if the subtask did not complete successfully
+         */
+        @Override
+        T get();
+
+        /**
+         * @return exception thrown by the subtask
+         * @throws IllegalStateException if the subtask did not fail
+         */
+        Throwable exception();
+    }
+
+    private final String name;
+    private final ThreadFactory threadFactory;
+    private final Thread owner = Thread.currentThread();
+    private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition done = lock.newCondition();
+    private int running;
+
+    private volatile boolean isShutdown;
+    private boolean isClosed;
+    private boolean needsJoin;
+
+    /**
+     * Creates an unnamed scope that forks subtasks in virtual threads on Java 21+ (or platform threads on Java 8+)
+     */
+    public StructuredScope() {
+        this(null, getThreadProvider()::unstartedVirtualThread);
+    }
+
+    /**
+     * @param name          name of the scope, for monitoring and debugging. Can be null
+     * @param threadFactory factory that creates the thread of each subtask
+     */
+    public StructuredScope(String name, ThreadFactory threadFactory) {
+        this.name = name;
+        this.threadFactory = Objects.requireNonNull(threadFactory);
+    }
+
+    /**
+     * Starts a new thread to run the task. If the scope is shut down, the task is not run and the returned
+     * subtask stays {@link Subtask.State#UNAVAILABLE}.
+     *
+     * @param task the task to run
+     * @param <U>  result type of the task
+     * @return the subtask
+     * @throws IllegalStateException      if the scope is closed
+     * @throws RejectedExecutionException if the thread factory did not create a thread
+     * @throws RuntimeException           thrown by the thread factory, e.g. an {@link IncompatibilityException}
+     *                                    on Java 8+ if virtual threads must not be replaced by platform threads
+     */
+    public <U extends T> Subtask<U> fork(Callable<? extends U> task) {
+        Objects.requireNonNull(task);
+        SubtaskImpl<U> subtask = new SubtaskImpl<>(task);
+
+        lock.lock();
+        try {
+            if (isClosed) {
+                throw new IllegalStateException("Scope is closed");
+            }
+            needsJoin = true;
+            if (isShutdown) {
+                return subtask;
+            }
+            running++;
+        } finally {
+            lock.unlock();
+        }
+
+        Thread thread = null;
+        try {
+            thread = threadFactory.newThread(ScopedContext.wrap(subtask));
+            if (thread == null) {
+                throw new RejectedExecutionException("Thread factory did not create a thread");
+            }
+            threads.add(thread);
+            thread.start();
+        } catch (RuntimeException | Error e) {
+            // the subtask will never run, so it must not be awaited
+            if (thread != null) {
+                threads.remove(thread);
+            }
+            onFinished();
+            throw e;
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until all subtasks have finished or the scope is shut down
+     *
+     * @return this scope
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws IllegalStateException if the scope is closed
+     */
+    public StructuredScope<T> join() throws InterruptedException {
+        ensureOwner();
+        lock.lock();
+        try {
+            ensureOpen();
+            while (running > 0 && !isShutdown) {
+                done.await();
+            }
+            needsJoin = false;
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    /**
+     * Waits until all subtasks have finished or the scope is shut down, up to the given deadline.
+     * If the deadline passes first, the scope is shut down, so the unfinished subtasks are cancelled.
+     *
+     * @param deadline the deadline
+     * @return this scope
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws TimeoutException      if the deadline passed before the subtasks finished
+     * @throws IllegalStateException if the scope is closed
+     */
+    public StructuredScope<T> joinUntil(Instant deadline) throws InterruptedException, TimeoutException {
+        ensureOwner();
+        long nanos = toNanos(Duration.between(Instant.now(), deadline));
+        lock.lock();
+        try {
+            ensureOpen();
+            while (running > 0 && !isShutdown) {
+                if (nanos <= 0) {
+                    needsJoin = false;
+                    shutdown();
+                    throw new TimeoutException();
+                }
+                nanos = done.awaitNanos(nanos);
+            }
+            needsJoin = false;
+        } finally {
+            lock.unlock();
+        }
+        return this;
+    }
+
+    private static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return duration.isNegative() ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Invoked by the thread of a subtask when it completes before the scope is shut down.
+     * Policies override this to collect results and to shut down the scope.
+     *
+     * @param subtask the completed subtask, in state {@link Subtask.State#SUCCESS} or {@link Subtask.State#FAILED}
+     */
+    protected void handleComplete(Subtask<? extends T> subtask) {
+    }
+
+    /**
+     * Prevents new subtasks from starting, interrupts the threads of unfinished subtasks and wakes up the owner
+     * if it is waiting in {@link #join()}. Results of subtasks that complete after shutdown are discarded.
+     */
+    public void shutdown() {
+        if (isShutdown) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (isShutdown) {
+                return;
+            }
+            isShutdown = true;
+            done.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Thread thread : threads) {
+            if (thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return true if the scope is shut down
+     */
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * Shuts down the scope and waits for the threads of all subtasks to finish.
+     *
+     * @throws IllegalStateException if the owner forked subtasks and did not join before closing
+     */
+    @Override
+    public void close() {
+        ensureOwner();
+        shutdown();
+
+        boolean interrupted = false;
+        boolean joined;
+        lock.lock();
+        try {
+            if (isClosed) {
+                return;
+            }
+            while (running > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            isClosed = true;
+            joined = !needsJoin;
+        } finally {
+            lock.unlock();
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (!joined) {
+            throw new IllegalStateException("Owner did not join after forking subtasks");
+        }
+    }
+
+    private void onFinished() {
+        lock.lock();
+        try {
+            if (--running == 0) {
+                done.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void ensureOwner() {
+        if (Thread.currentThread() != owner) {
+            throw new IllegalStateException("Current thread is not the owner of the scope");
+        }
+    }
+
+    private void ensureOpen() {
+        if (isClosed) {
+            throw new IllegalStateException("Scope is closed");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name == null ? super.toString() : name;
+    }
+
+    private final class SubtaskImpl<U extends T> implements Subtask<U>, Runnable {
+        private final Callable<? extends U> task;
+        private volatile State state = State.UNAVAILABLE;
+        private U result;
+        private Throwable exception;
+
+        SubtaskImpl(Callable<? extends U> task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (isShutdown) {
+                    // shut down before the thread started, so it missed the interrupt
+                    return;
+                }
+                U value = null;
+                Throwable failure = null;
+                try {
+                    value = task.call();
+                } catch (Throwable e) {
+                    failure = e;
+                }
+
+                if (!isShutdown) {
+                    if (failure == null) {
+                        result = value;
+                        state = State.SUCCESS;
+                    } else {
+                        exception = failure;
+                        state = State.FAILED;
+                    }
+                    handleComplete(this);
+                }
+            } finally {
+                threads.remove(Thread.currentThread());
+                onFinished();
+            }
+        }
+
+        @Override
+        public Callable<? extends U> task() {
+            return task;
+        }
+
+        @Override
+        public State state() {
+            return state;
+        }
+
+        @Override
+        public U get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask not completed successfully: " + state);
+            }
+            return result;
+        }
+
+        @Override
+        public Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("Subtask not failed: " + state);
+            }
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return "Subtask[" + state + "]";
+        }
+    }
+
+    /**
+     * Scope that captures the exception of the first subtask to fail and then shuts down,
+     * cancelling the other subtasks.
+     */
+    public static class ShutdownOnFailure extends StructuredScope<Object> {
+        private final AtomicReference<Throwable> firstException = new AtomicReference<>();
+
+        public ShutdownOnFailure() {
+            super();
+        }
+
+        /**
+         * @param name          name of the scope, for monitoring and debugging. Can be null
+         * @param threadFactory factory that creates the thread of each subtask
+         */
+        public ShutdownOnFailure(String name, ThreadFactory threadFactory) {
+            super(name, threadFactory);
+        }
+
+        @Override
+        protected void handleComplete(Subtask<?> subtask) {
+            if (subtask.state() == Subtask.State.FAILED && firstException.compareAndSet(null, subtask.exception())) {
+                shutdown();
+            }
+        }
+
+        @Override
+        public ShutdownOnFailure join() throws InterruptedException {
+            super.join();
+            return this;
+        }
+
+        @Override
+        public ShutdownOnFailure joinUntil(Instant deadline) throws InterruptedException, TimeoutException {
+            super.joinUntil(deadline);
+            return this;
+        }
+
+        /**
+         * @return exception of the first subtask that failed, if any
+         */
+        public Optional<Throwable> exception() {
+            return Optional.ofNullable(firstException.get());
+        }
+
+        /**
+         * Throws if a subtask failed
+         *
+         * @throws ExecutionException with the exception of the first subtask that failed as cause
+         */
+        public void throwIfFailed() throws ExecutionException {
+            throwIfFailed(ExecutionException::new);
+        }
+
+        /**
+         * Throws if a subtask failed
+         *
+         * @param esf function that maps the exception of the first subtask that failed to the exception to throw
+         * @param <X> type of the exception to throw
+         * @throws X if a subtask failed
+         */
+        public <X extends Throwable> void throwIfFailed(Function<Throwable, ? extends X> esf) throws X {
+            Throwable exception = firstException.get();
+            if (exception != null) {
+                X x = esf.apply(exception);
+                throw Objects.requireNonNull(x, "esf returned null");
+            }
+        }
+    }
+
+    /**
+     * Scope that captures the result of the first subtask to succeed and then shuts down,
+     * cancelling the other subtasks.
+     *
+     * @param <T> result type
+     */
+    public static class ShutdownOnSuccess<T> extends StructuredScope<T> {
+        private final AtomicReference<Subtask<? extends T>> firstSuccess = new AtomicReference<>();
+        private final AtomicReference<Throwable> firstException = new AtomicReference<>();
+
+        public ShutdownOnSuccess() {
+            super();
+        }
+
+        /**
+         * @param name          name of the scope, for monitoring and debugging. Can be null
+         * @param threadFactory factory that creates the thread of each subtask
+         */
+        public ShutdownOnSuccess(String name, ThreadFactory threadFactory) {
+            super(name, threadFactory);
+        }
+
+        @Override
+        protected void handleComplete(Subtask<? extends T> subtask) {
+            if (subtask.state() == Subtask.State.SUCCESS) {
+                if (firstSuccess.compareAndSet(null, subtask)) {
+                    shutdown();
+                }
+            } else {
+                firstException.compareAndSet(null, subtask.exception());
+            }
+        }
+
+        @Override
+        public ShutdownOnSuccess<T> join() throws InterruptedException {
+            super.join();
+            return this;
+        }
+
+        @Override
+        public ShutdownOnSuccess<T> joinUntil(Instant deadline) throws InterruptedException, TimeoutException {
+            super.joinUntil(deadline);
+            return this;
+        }
+
+        /**
+         * @return result of the first subtask that succeeded
+         * @throws ExecutionException    if no subtask succeeded, with the exception of the first subtask that failed
+         * @throws IllegalStateException if no subtask completed
+         */
+        public T result() throws ExecutionException {
+            return result(ExecutionException::new);
+        }
+
+        /**
+         * @param esf function that maps the exception of the first subtask that failed to the exception to throw
+         * @param <X> type of the exception to throw
+         * @return result of the first subtask that succeeded
+         * @throws X                     if no subtask succeeded
+         * @throws IllegalStateException if no subtask completed
+         */
+        public <X extends Throwable> T result(Function<Throwable, ? extends X> esf) throws X {
+            Subtask<? extends T> subtask = firstSuccess.get();
+            if (subtask != null) {
+                return subtask.get();
+            }
+            Throwable exception = firstException.get();
+            if (exception == null) {
+                throw new IllegalStateException("No completed subtasks");
+            }
+            X x = esf.apply(exception);
+            throw Objects.requireNonNull(x, "esf returned null");
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Aggregate handle of tasks submitted together, e.g. the subrequests of a fan-out, returned by
+ * {@link ExecutorTool#submitAll(java.util.concurrent.ExecutorService, Collection)} and
+ * {@link SemaphoreExecutor#submitAll(Collection)}.
+ *
+ * <p>
+ * As a {@code Future<List<T>>}, {@link #get()} returns the results of all tasks, in submission order, or throws the
+ * first failure as soon as it happens, after cancelling the tasks still running. {@link #take()} returns the futures
+ * of the tasks in completion order instead, and {@link #cancel(boolean)} cancels the tasks not yet completed.
+ *
+ * <pre>{@code
+ * TaskBatch<Price> prices = ExecutorTool.submitAll(executor, priceRequests);
+ * for (Future<Price> price; (price = prices.take()) != null; ) {
+ *     if (isGoodEnough(price.get())) {
+ *         prices.cancel(true);
+ *         break;
+ *     }
+ * }
+ * }</pre>
+ *
+ * @param <T> result type of the tasks
+ * @since 0.0.11
+ */
+public final class TaskBatch<T> implements Future<List<T>> {
+
+    private final List<BatchTask> tasks;
+    private final List<Future<T>> futures;
+    // futures of the completed tasks, closed once all completed
+    private final Channel<Future<T>> completed = Channel.newUnboundedChannel();
+    private final AtomicInteger doneCount = new AtomicInteger();
+    private final AtomicReference<BatchTask> firstFailure = new AtomicReference<>();
+    // released once all tasks completed, or one failed
+    private final CountDownLatch settled = new CountDownLatch(1);
+    // index of the next task for the workers of start(Executor, IntSupplier)
+    private final AtomicInteger nextTask = new AtomicInteger();
+    private final AtomicInteger workers = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    TaskBatch(Collection<? extends Callable<T>> callables, UnaryOperator<Callable<T>> wrapper) {
+        List<BatchTask> list = new ArrayList<>(callables.size());
+        for (Callable<T> callable : callables) {
+            list.add(new BatchTask(wrapper.apply(Objects.requireNonNull(callable, "task is required"))));
+        }
+        this.tasks = list;
+        this.futures = Collections.unmodifiableList(list);
+        if (list.isEmpty()) {
+            completed.close();
+            settled.countDown();
+        }
+    }
+
+    /**
+     * Hands every task to the executor. If the executor rejects one, the batch is cancelled, as the caller gets no
+     * handle of the tasks already handed over.
+     */
+    void start(Executor executor) {
+        try {
+            for (BatchTask task : tasks) {
+                executor.execute(task);
+            }
+        } catch (RuntimeException | Error e) {
+            cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the tasks in as many threads of the executor as there are available permits, rather than one thread
+     * per task that would mostly wait for a permit. A worker starts another one when it sees permits left over.
+     * If the executor rejects one of the first workers, the batch is cancelled, as with {@link #start(Executor)}.
+     */
+    void start(Executor executor, IntSupplier availablePermits) {
+        int count = Math.max(1, Math.min(tasks.size(), availablePermits.getAsInt()));
+        try {
+            for (int i = 0; i < count; i++) {
+                startWorker(executor, availablePermits);
+            }
+        } catch (RuntimeException | Error e) {
+            cancel(true);
+            throw e;
+        }
+    }
+
+    private void startWorker(Executor executor, IntSupplier availablePermits) {
+        int current;
+        do {
+            current = workers.get();
+            if (current >= tasks.size() - nextTask.get()) {
+                // a worker for each task left
+                return;
+            }
+        } while (!workers.compareAndSet(current, current + 1));
+        try {
+            executor.execute(() -> runTasks(executor, availablePermits));
+        } catch (RuntimeException e) {
+            workers.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void runTasks(Executor executor, IntSupplier availablePermits) {
+        try {
+            boolean first = true;
+            int index;
+            while ((index = nextTask.getAndIncrement()) < tasks.size()) {
+                // after the first task, whose permit was counted by start: one permit is for the task of this worker
+                if (!first && index + 1 < tasks.size() && availablePermits.getAsInt() > 1) {
+                    startOtherWorker(executor, availablePermits);
+                }
+                first = false;
+                BatchTask task = tasks.get(index);
+                task.run();
+                if (task.isCancelled()) {
+                    // clear the interrupt of cancel(true), the next task is not cancelled
+                    Thread.interrupted();
+                }
+            }
+        } finally {
+            workers.decrementAndGet();
+        }
+    }
+
+    private void startOtherWorker(Executor executor, IntSupplier availablePermits) {
+        try {
+            startWorker(executor, availablePermits);
+        } catch (RejectedExecutionException e) {
+            // this worker runs the tasks left
+        }
+    }
+
+    /**
+     * @return number of tasks
+     */
+    public int size() {
+        return tasks.size();
+    }
+
+    /**
+     * @return futures of the tasks, in submission order
+     */
+    public List<Future<T>> getFutures() {
+        return futures;
+    }
+
+    /**
+     * Waits for the next task to complete, whether it succeeded, failed or was cancelled
+     *
+     * @return future of the next completed task, or null once the futures of all tasks were taken
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Future<T> take() throws InterruptedException {
+        try {
+            return completed.receive();
+        } catch (ChannelClosedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the next task to complete, up to a timeout
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return future of the next completed task, or null if the timeout elapsed or the futures of all tasks were taken
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Future<T> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            return completed.receive(timeout, unit);
+        } catch (ChannelClosedException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Cancels the tasks not yet completed
+     *
+     * @param mayInterruptIfRunning true to interrupt the threads running the tasks
+     * @return true if a task was cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        if (!cancelTasks(mayInterruptIfRunning)) {
+            return false;
+        }
+        cancelled = true;
+        return true;
+    }
+
+    private boolean cancelTasks(boolean mayInterruptIfRunning) {
+        boolean any = false;
+        for (BatchTask task : tasks) {
+            any |= task.cancel(mayInterruptIfRunning);
+        }
+        return any;
+    }
+
+    /**
+     * @return true if {@link #cancel(boolean)} cancelled a task
+     */
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @return true if all tasks completed
+     */
+    @Override
+    public boolean isDone() {
+        return doneCount.get() == tasks.size();
+    }
+
+    /**
+     * Waits for all tasks to succeed, or for the first to fail, in which case the others are cancelled
+     *
+     * @return results of the tasks, in submission order
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws ExecutionException    with the exception of the first task that failed
+     * @throws CancellationException if a task was cancelled before the others succeeded
+     */
+    @Override
+    public List<T> get() throws InterruptedException, ExecutionException {
+        settled.await();
+        return results();
+    }
+
+    /**
+     * Waits for all tasks to succeed, or for the first to fail, in which case the others are cancelled, up to a
+     * timeout. The tasks are not cancelled when the timeout elapses.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @return results of the tasks, in submission order
+     * @throws InterruptedException  if interrupted while waiting
+     * @throws ExecutionException    with the exception of the first task that failed
+     * @throws CancellationException if a task was cancelled before the others succeeded
+     * @throws TimeoutException      if the timeout elapsed
+     */
+    @Override
+    public List<T> get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!settled.await(timeout, unit)) {
+            throw new TimeoutException(String.format("Tasks not completed before the timeout %s %s", timeout, unit));
+        }
+        return results();
+    }
+
+    private List<T> results() throws ExecutionException {
+        BatchTask failed = firstFailure.get();
+        if (failed != null) {
+            cancelTasks(true);
+            // throws the exception of the task, or CancellationException
+            failed.get0();
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        for (BatchTask task : tasks) {
+            results.add(task.get0());
+        }
+        return results;
+    }
+
+    private void onDone(BatchTask task) {
+        completed.trySend(task);
+        if (task.isFailed() && firstFailure.compareAndSet(null, task)) {
+            settled.countDown();
+        }
+        if (doneCount.incrementAndGet() == tasks.size()) {
+            completed.close();
+            settled.countDown();
+        }
+    }
+
+    private final class BatchTask extends FutureTask<T> {
+
+        // set before done() is called
+        private volatile boolean failed;
+
+        BatchTask(Callable<T> callable) {
+            super(callable);
+        }
+
+        boolean isFailed() {
+            return failed || isCancelled();
+        }
+
+        // get() of a done task
+        T get0() throws ExecutionException {
+            try {
+                return get();
+            } catch (InterruptedException e) {
+                // not reached, the task is done
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        protected void setException(Throwable t) {
+            failed = true;
+            super.setException(t);
+        }
+
+        @Override
+        protected void done() {
+            onDone(this);
+        }
+    }
+}
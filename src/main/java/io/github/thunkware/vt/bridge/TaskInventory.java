@@ -0,0 +1,347 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * {@link ExecutorMetrics} that keeps the tasks currently running, to see which tasks hold the permits of an executor
+ * that stopped making progress.
+ *
+ * <p>
+ * Pass it to an executor like any other metrics, or set it as default with
+ * {@link ThreadProviderConfig#setExecutorMetrics(ExecutorMetrics)}. Other metrics can be chained with
+ * {@link #TaskInventory(ExecutorMetrics)}. The executors report the start and the end of a task on the thread running
+ * it, so the inventory keeps one entry per running task, keyed by its thread, and captures stack traces only when a
+ * snapshot asks for them. {@link Thread#getStackTrace()} works for virtual threads on Java 21 as well as for the
+ * platform threads on Java 8.
+ *
+ * <p>
+ * Only the executors that take an {@link ExecutorMetrics} report to it: the semaphore, adaptive, keyed and
+ * rate-limited executors of {@link ExecutorTool}. The thread-per-task executors, such as
+ * {@link ExecutorTool#newVirtualThreadPerTaskExecutor()}, and the executors built on them do not, so their tasks
+ * are not in the inventory unless they run behind one of the former.
+ *
+ * <pre>{@code
+ * TaskInventory inventory = new TaskInventory(new ExecutorStats());
+ * ExecutorService executor = ExecutorTool.newSemaphoreVirtualExecutor(10, inventory);
+ * inventory.watch(Duration.ofSeconds(30), Duration.ofSeconds(5), task -> log.warn("Stuck task {}", task));
+ * }</pre>
+ *
+ * @since 0.0.11
+ */
+public class TaskInventory implements ExecutorMetrics {
+
+    private static final StackTraceElement[] NO_STACK_TRACE = new StackTraceElement[0];
+
+    private final ExecutorMetrics next;
+    private final Map<Thread, Entry> running = new ConcurrentHashMap<>();
+
+    public TaskInventory() {
+        this(null);
+    }
+
+    /**
+     * @param next metrics that also receive every callback, or null
+     */
+    public TaskInventory(ExecutorMetrics next) {
+        this.next = next;
+    }
+
+    @Override
+    public void onSubmitted() {
+        if (next != null) {
+            next.onSubmitted();
+        }
+    }
+
+    @Override
+    public void onStarted(long queueNanos) {
+        Thread thread = Thread.currentThread();
+        Entry entry = new Entry(thread, System.nanoTime());
+        // a task may run another one in its thread, e.g. with CALLER_RUNS, the outer one is restored at the end.
+        // Set before the put, which publishes the entry to the snapshots
+        entry.outer = running.get(thread);
+        running.put(thread, entry);
+        if (next != null) {
+            next.onStarted(queueNanos);
+        }
+    }
+
+    @Override
+    public void onCompleted(long runNanos) {
+        onEnded();
+        if (next != null) {
+            next.onCompleted(runNanos);
+        }
+    }
+
+    @Override
+    public void onFailed(long runNanos, Throwable failure) {
+        onEnded();
+        if (next != null) {
+            next.onFailed(runNanos, failure);
+        }
+    }
+
+    @Override
+    public void bindAvailablePermits(IntSupplier availablePermits) {
+        if (next != null) {
+            next.bindAvailablePermits(availablePermits);
+        }
+    }
+
+    // only the thread of a task changes its own key, so these updates do not race
+    private void onEnded() {
+        Thread thread = Thread.currentThread();
+        Entry entry = running.get(thread);
+        if (entry == null) {
+            return;
+        }
+        if (entry.outer == null) {
+            running.remove(thread);
+        } else {
+            running.put(thread, entry.outer);
+        }
+    }
+
+    /**
+     * @return number of tasks running
+     */
+    public int getRunningCount() {
+        int count = 0;
+        for (Entry entry : running.values()) {
+            for (Entry task = entry; task != null; task = task.outer) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return snapshot of the running tasks, oldest first, without stack traces
+     */
+    public List<RunningTask> getRunningTasks() {
+        return getRunningTasks(false);
+    }
+
+    /**
+     * @param withStackTraces true to capture the stack trace of the thread of each task, which pauses the threads
+     * @return snapshot of the running tasks, oldest first
+     */
+    public List<RunningTask> getRunningTasks(boolean withStackTraces) {
+        return snapshot(0, withStackTraces, Collections.emptySet());
+    }
+
+    private List<RunningTask> snapshot(long minAgeNanos, boolean withStackTraces, Set<Entry> excluded) {
+        long now = System.nanoTime();
+        Instant wallNow = Instant.now();
+        List<RunningTask> tasks = new ArrayList<>();
+        for (Entry entry : running.values()) {
+            // the stack trace of a thread shows the innermost task, so it is captured once per thread
+            StackTraceElement[] stackTrace = null;
+            for (Entry task = entry; task != null; task = task.outer) {
+                long ageNanos = now - task.startNanos;
+                if (ageNanos < minAgeNanos || excluded.contains(task)) {
+                    continue;
+                }
+                if (stackTrace == null) {
+                    stackTrace = withStackTraces ? task.thread.getStackTrace() : NO_STACK_TRACE;
+                }
+                tasks.add(new RunningTask(task, wallNow.minusNanos(ageNanos), Duration.ofNanos(ageNanos), stackTrace));
+            }
+        }
+        tasks.sort((a, b) -> b.getAge().compareTo(a.getAge()));
+        return tasks;
+    }
+
+    /**
+     * Reports every task that runs longer than a threshold, once per task. The tasks are checked every interval
+     * on the shared timer of the library, and the listener is called with their stack traces in the common
+     * {@link ForkJoinPool}.
+     *
+     * @param threshold run time above which a task is reported
+     * @param interval  time between two checks
+     * @param listener  receives the stuck tasks
+     * @return Watchdog to close when the tasks no longer need to be watched
+     */
+    public Watchdog watch(Duration threshold, Duration interval, Consumer<RunningTask> listener) {
+        if (threshold.isNegative() || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("threshold must not be negative and interval must be positive");
+        }
+        Watchdog watchdog = new Watchdog(threshold.toNanos(), interval.toNanos(),
+                Objects.requireNonNull(listener, "listener is required"));
+        watchdog.schedule();
+        return watchdog;
+    }
+
+    // a running task, with the task it interrupted in the same thread, if any
+    private static final class Entry {
+        private final Thread thread;
+        private final long startNanos;
+        private Entry outer;
+
+        Entry(Thread thread, long startNanos) {
+            this.thread = thread;
+            this.startNanos = startNanos;
+        }
+    }
+
+    /**
+     * Snapshot of a task that was running when {@link #getRunningTasks(boolean)} was called
+     */
+    public static final class RunningTask {
+
+        private final Entry entry;
+        private final String threadName;
+        private final String tag;
+        private final Instant startTime;
+        private final Duration age;
+        private final StackTraceElement[] stackTrace;
+
+        private RunningTask(Entry entry, Instant startTime, Duration age, StackTraceElement[] stackTrace) {
+            this.entry = entry;
+            this.threadName = entry.thread.getName();
+            this.tag = TaskTag.of(entry.thread);
+            this.startTime = startTime;
+            this.age = age;
+            this.stackTrace = stackTrace;
+        }
+
+        /**
+         * @return thread running the task, e.g. to interrupt it
+         */
+        public Thread getThread() {
+            return entry.thread;
+        }
+
+        /**
+         * @return name of the thread running the task when the snapshot was taken, empty for unnamed virtual threads
+         */
+        public String getThreadName() {
+            return threadName;
+        }
+
+        /**
+         * @return {@link TaskTag} of the thread running the task when the snapshot was taken, or null
+         */
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * @return time the task started
+         */
+        public Instant getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * @return time the task had been running when the snapshot was taken
+         */
+        public Duration getAge() {
+            return age;
+        }
+
+        /**
+         * @return stack trace of the thread running the task, empty if not captured
+         */
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace.clone();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("RunningTask[thread=").append(entry.thread)
+                    .append(", tag=").append(tag)
+                    .append(", startTime=").append(startTime)
+                    .append(", age=").append(age).append(']');
+            for (StackTraceElement element : stackTrace) {
+                builder.append("\n\tat ").append(element);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Periodic check of the tasks of a {@link TaskInventory}, see {@link #watch(Duration, Duration, Consumer)}
+     */
+    public final class Watchdog implements AutoCloseable {
+
+        private final long thresholdNanos;
+        private final long intervalNanos;
+        private final Consumer<RunningTask> listener;
+        // tasks already reported, pruned of the ended ones at every check
+        private final Set<Entry> reported = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private volatile HashedWheelTimer.Timeout timeout;
+        private volatile boolean closed;
+
+        private Watchdog(long thresholdNanos, long intervalNanos, Consumer<RunningTask> listener) {
+            this.thresholdNanos = thresholdNanos;
+            this.intervalNanos = intervalNanos;
+            this.listener = listener;
+        }
+
+        private void schedule() {
+            if (!closed) {
+                timeout = HashedWheelTimer.shared().newTimeout(this::onTick, intervalNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // on the timer thread, which must not block: the check runs in the common pool
+        private void onTick() {
+            try {
+                ForkJoinPool.commonPool().execute(this::check);
+            } catch (RuntimeException e) {
+                schedule();
+                throw e;
+            }
+        }
+
+        private void check() {
+            try {
+                reported.removeIf(entry -> !isRunning(entry));
+                for (RunningTask task : snapshot(thresholdNanos, true, reported)) {
+                    if (closed) {
+                        return;
+                    }
+                    reported.add(task.entry);
+                    listener.accept(task);
+                }
+            } finally {
+                schedule();
+            }
+        }
+
+        private boolean isRunning(Entry entry) {
+            for (Entry task = running.get(entry.thread); task != null; task = task.outer) {
+                if (task == entry) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Stops the checks
+         */
+        @Override
+        public void close() {
+            closed = true;
+            HashedWheelTimer.Timeout current = timeout;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+}
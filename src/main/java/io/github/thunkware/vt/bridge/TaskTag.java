@@ -0,0 +1,69 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tag of the task a thread is running, a cheaper alternative to renaming the thread for every task.
+ *
+ * <p>
+ * {@link ThreadNameRunnable} and {@link ThreadNameCallable} created with {@code renameThread} false record their name
+ * as the tag of the thread while the task runs, instead of calling {@link Thread#setName(String)}, which allocates
+ * and, for platform threads, also renames the OS thread. Threads they rename get no tag, as their name already tells
+ * the task. Logging can read the tag of the current thread with {@link #current()}, diagnostics the tags of other
+ * threads with {@link #of(Thread)} or {@link #getTaggedThreads()}, and {@link TaskInventory} snapshots include them.
+ *
+ * @since 0.0.11
+ */
+public final class TaskTag {
+
+    private static final Map<Thread, String> TAGS = new ConcurrentHashMap<>();
+
+    /**
+     * @return tag of the task the current thread is running, or null
+     */
+    public static String current() {
+        return TAGS.get(Thread.currentThread());
+    }
+
+    /**
+     * @param thread thread
+     * @return tag of the task the thread is running, or null
+     */
+    public static String of(Thread thread) {
+        return TAGS.get(thread);
+    }
+
+    /**
+     * @return snapshot of the threads running a tagged task, with their tag
+     */
+    public static Map<Thread, String> getTaggedThreads() {
+        return Collections.unmodifiableMap(new HashMap<>(TAGS));
+    }
+
+    /**
+     * Tags the current thread
+     *
+     * @return previous tag, to be passed to {@link #restore(String)} when the task ends
+     */
+    static String set(String tag) {
+        return TAGS.put(Thread.currentThread(), tag);
+    }
+
+    /**
+     * Restores the tag the current thread had before {@link #set(String)}
+     */
+    static void restore(String previousTag) {
+        if (previousTag == null) {
+            TAGS.remove(Thread.currentThread());
+        } else {
+            TAGS.put(Thread.currentThread(), previousTag);
+        }
+    }
+
+    private TaskTag() {
+        throw new AssertionError();
+    }
+}
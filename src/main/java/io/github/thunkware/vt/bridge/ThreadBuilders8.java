@@ -223,7 +223,7 @@ class ThreadBuilders8 {
     /**
      * Base ThreadFactory implementation.
      */
-    private abstract static class BaseThreadFactory implements ThreadFactory {
+    abstract static class BaseThreadFactory implements ThreadFactory {
         private final String name;
         private final UncaughtExceptionHandler uhe;
 
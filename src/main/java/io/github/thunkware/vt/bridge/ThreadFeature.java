@@ -15,4 +15,5 @@ public enum ThreadFeature {
     OF_PLATFORM,
     OF_VIRTUAL,
     INHERIT_INHERITABLE_THREAD_LOCALS,
+    VIRTUAL_THREAD_TELEMETRY,
 }
@@ -5,12 +5,15 @@ import java.util.concurrent.Callable;
 /**
  * Convenience callable wrapper that sets
  * the thread name, executes the Callable, then
- * resets the thread name
+ * resets the thread name.
+ * See {@link #ThreadNameCallable(String, Callable, boolean)} to record the name as the
+ * {@link TaskTag} of the thread instead.
  */
 public class ThreadNameCallable<V> implements Callable<V> {
 
     private final String threadName;
     private final Callable<V> callable;
+    private final boolean renameThread;
 
     /**
      * Constructor
@@ -19,6 +22,18 @@ public class ThreadNameCallable<V> implements Callable<V> {
      * @param callable the Callable
      */
     public ThreadNameCallable(String threadName, Callable<V> callable) {
+        this(threadName, callable, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threadName   the thread name, or the {@link TaskTag} of the thread if it is not renamed
+     * @param callable     the Callable
+     * @param renameThread false to record the tag rather than rename the thread
+     * @since 0.0.11
+     */
+    public ThreadNameCallable(String threadName, Callable<V> callable, boolean renameThread) {
         if (threadName == null) {
             throw new IllegalArgumentException("threadName cannot be null");
         }
@@ -29,10 +44,20 @@ public class ThreadNameCallable<V> implements Callable<V> {
 
         this.threadName = threadName;
         this.callable = callable;
+        this.renameThread = renameThread;
     }
 
     @Override
     public V call() throws Exception {
+        if (!renameThread) {
+            String previousTag = TaskTag.set(threadName);
+            try {
+                return callable.call();
+            } finally {
+                TaskTag.restore(previousTag);
+            }
+        }
+
         Thread currentThread = Thread.currentThread();
         String originalThreadName = currentThread.getName();
 
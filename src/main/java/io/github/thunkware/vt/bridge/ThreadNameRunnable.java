@@ -3,12 +3,15 @@ package io.github.thunkware.vt.bridge;
 /**
  * Convenience runnable wrapper that sets
  * the thread name, executes the Runnable, then
- * resets the thread name
+ * resets the thread name.
+ * See {@link #ThreadNameRunnable(String, Runnable, boolean)} to record the name as the
+ * {@link TaskTag} of the thread instead.
  */
 public class ThreadNameRunnable implements Runnable {
 
     private final String threadName;
     private final Runnable task;
+    private final boolean renameThread;
 
     /**
      * Constructor
@@ -17,6 +20,18 @@ public class ThreadNameRunnable implements Runnable {
      * @param task the Runnable
      */
     public ThreadNameRunnable(String threadName, Runnable task) {
+        this(threadName, task, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threadName   the thread name, or the {@link TaskTag} of the thread if it is not renamed
+     * @param task         the Runnable
+     * @param renameThread false to record the tag rather than rename the thread
+     * @since 0.0.11
+     */
+    public ThreadNameRunnable(String threadName, Runnable task, boolean renameThread) {
         if (threadName == null) {
             throw new IllegalArgumentException("threadName cannot be null");
         }
@@ -27,10 +42,21 @@ public class ThreadNameRunnable implements Runnable {
 
         this.threadName = threadName;
         this.task = task;
+        this.renameThread = renameThread;
     }
 
     @Override
     public void run() {
+        if (!renameThread) {
+            String previousTag = TaskTag.set(threadName);
+            try {
+                task.run();
+                return;
+            } finally {
+                TaskTag.restore(previousTag);
+            }
+        }
+
         Thread currentThread = Thread.currentThread();
         String originalThreadName = currentThread.getName();
 
@@ -5,6 +5,8 @@ import io.github.thunkware.vt.bridge.ThreadTool.Builder;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static io.github.thunkware.vt.bridge.ThreadFeature.HAS_VIRTUAL_THREADS;
 import static io.github.thunkware.vt.bridge.ThreadFeature.NEW_THREAD_PER_TASK_EXECUTOR;
@@ -13,6 +15,7 @@ import static io.github.thunkware.vt.bridge.ThreadFeature.OF_PLATFORM;
 import static io.github.thunkware.vt.bridge.ThreadFeature.OF_VIRTUAL;
 import static io.github.thunkware.vt.bridge.ThreadFeature.START_VIRTUAL_THREAD;
 import static io.github.thunkware.vt.bridge.ThreadFeature.UNSTARTED_VIRTUAL_THREAD;
+import static io.github.thunkware.vt.bridge.ThreadFeature.VIRTUAL_THREAD_TELEMETRY;
 
 /**
  * Provides various Java21 Virtual Thread features in Java8+ VM 
@@ -117,6 +120,32 @@ public interface ThreadProvider {
     @ConfigFeature(feature = NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR)
     ExecutorService newVirtualThreadPerTaskExecutor(ThreadCustomizer threadCustomizer, ThreadFactory threadFactory);
 
+    /**
+     * Creates an Executor that starts a new virtual Thread on Java 21 + (or new platform thread on Java 8+) for each
+     * task, except for the {@link MonitorHeavyTask}s on Java 21 to 23: those run in a pool of platform threads, so
+     * that blocking in their synchronized blocks does not pin the carrier threads of the virtual threads.
+     *
+     * @param monitorPoolSize number of platform threads for the {@link MonitorHeavyTask}s on Java 21 to 23
+     * @return a new executor that creates a new virtual Thread for each task that does not pin
+     */
+    @ConfigFeature(feature = NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR)
+    ExecutorService newPinningAwareVirtualThreadPerTaskExecutor(int monitorPoolSize);
+
+    /**
+     * Maps the elements of a stream concurrently, each in a new virtual Thread on Java 21+ (or new platform thread
+     * on Java 8+), at most maxConcurrency at once, and returns the results in encounter order. On Java 24+ this is
+     * {@code stream.gather(Gatherers.mapConcurrent(maxConcurrency, mapper))}.
+     *
+     * @param stream         source stream, consumed lazily
+     * @param maxConcurrency maximum number of elements mapped at once
+     * @param mapper         mapper of an element, typically I/O-bound
+     * @param <T>            type of the elements of the source
+     * @param <R>            type of the results
+     * @return sequential stream of the results
+     */
+    @ConfigFeature(feature = START_VIRTUAL_THREAD)
+    <T, R> Stream<R> mapConcurrent(Stream<T> stream, int maxConcurrency, Function<? super T, ? extends R> mapper);
+
     /**
      * Returns a builder for creating a platform {@code Thread} or {@code ThreadFactory}
      * that creates platform threads.
@@ -137,6 +166,16 @@ public interface ThreadProvider {
     @ConfigFeature(feature = OF_VIRTUAL)
     Builder.OfVirtual ofVirtual();
 
+    /**
+     * On Java 8+, returns a telemetry that records nothing. <p>
+     * On Java 21+, starts streaming virtual thread JFR events in-process and aggregates them.
+     *
+     * @param options what to record
+     * @return a started telemetry, to be closed when no longer needed
+     */
+    @ConfigFeature(feature = VIRTUAL_THREAD_TELEMETRY)
+    VirtualThreadTelemetry startVirtualThreadTelemetry(VirtualThreadTelemetry.Options options);
+
     /**
      * Get a shared ThreadProvider instance
      * @return ThreadProvider
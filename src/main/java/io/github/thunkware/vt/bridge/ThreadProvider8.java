@@ -3,14 +3,22 @@ package io.github.thunkware.vt.bridge;
 import io.github.thunkware.vt.bridge.ThreadTool.Builder.OfPlatform;
 import io.github.thunkware.vt.bridge.ThreadTool.Builder.OfVirtual;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static io.github.thunkware.vt.bridge.ThreadFeature.HAS_SAFE_VIRTUAL_THREADS;
 import static io.github.thunkware.vt.bridge.ThreadFeature.HAS_VIRTUAL_THREADS;
@@ -21,10 +29,12 @@ import static io.github.thunkware.vt.bridge.ThreadFeature.OF_PLATFORM;
 import static io.github.thunkware.vt.bridge.ThreadFeature.OF_VIRTUAL;
 import static io.github.thunkware.vt.bridge.ThreadFeature.START_VIRTUAL_THREAD;
 import static io.github.thunkware.vt.bridge.ThreadFeature.UNSTARTED_VIRTUAL_THREAD;
+import static io.github.thunkware.vt.bridge.ThreadFeature.VIRTUAL_THREAD_TELEMETRY;
 
 final class ThreadProvider8 implements ThreadProvider {
 
     private final ThreadProviderConfig config = new ThreadProviderConfig();
+    private volatile PlatformPool platformPool;
 
     @Override
     public ThreadProviderConfig getConfig() {
@@ -53,7 +63,7 @@ final class ThreadProvider8 implements ThreadProvider {
     public Thread startVirtualThread(final Runnable task) {
         config.enforceCompatibilityPolicy(START_VIRTUAL_THREAD);
 
-        Thread thread = unstartedVirtualThread(task);
+        Thread thread = newThread(ScopedContext.wrap(task), START_VIRTUAL_THREAD);
         thread.start();
         return thread;
     }
@@ -61,32 +71,96 @@ final class ThreadProvider8 implements ThreadProvider {
     @Override
     public Thread unstartedVirtualThread(Runnable task) {
         config.enforceCompatibilityPolicy(UNSTARTED_VIRTUAL_THREAD);
-        Thread thread = new Thread(task);
+        return newThread(ScopedContext.wrap(task), UNSTARTED_VIRTUAL_THREAD);
+    }
+
+    // the task is already wrapped with the ScopedContext of the caller
+    private Thread newThread(Runnable task, ThreadFeature threadFeature) {
+        Thread thread;
+        if (config.usesPlatformPool(threadFeature)) {
+            thread = getPlatformPool().newThread(task);
+        } else if (config.usesWorkStealingPool(threadFeature)) {
+            thread = new PooledThread(WorkStealingPool.POOL, task);
+        } else {
+            thread = new Thread(task);
+        }
         config.getThreadCustomizer().customize(thread);
         return thread;
     }
 
+    private PlatformPool getPlatformPool() {
+        PlatformPoolConfig poolConfig = config.getPlatformPoolConfig();
+        PlatformPool pool = platformPool;
+        if (pool != null && pool.getConfig() == poolConfig) {
+            return pool;
+        }
+        synchronized (this) {
+            pool = platformPool;
+            if (pool == null || pool.getConfig() != poolConfig) {
+                // the previous pool is not shut down: it still runs the tasks of the handles it created, then its
+                // threads end after the idle timeout
+                pool = new PlatformPool(poolConfig);
+                platformPool = pool;
+            }
+            return pool;
+        }
+    }
+
+    // the workers of ThreadPerTaskExecutor already wrap their task with the ScopedContext of the submitter
+    private ThreadFactory virtualThreadFactory() {
+        if (config.usesPlatformPool(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR)
+                || config.usesWorkStealingPool(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR)) {
+            return task -> newThread(task, NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR);
+        }
+        return task -> {
+            config.enforceCompatibilityPolicy(UNSTARTED_VIRTUAL_THREAD);
+            return newThread(task, UNSTARTED_VIRTUAL_THREAD);
+        };
+    }
+
     @Override
     public ExecutorService newThreadPerTaskExecutor(final ThreadFactory threadFactory) {
         config.enforceCompatibilityPolicy(NEW_THREAD_PER_TASK_EXECUTOR);
         return new ThreadPerTaskExecutor(threadFactory);
     }
 
+    /**
+     * Executor that starts a platform thread per task, without checking the compatibility policy, for the executors
+     * of the bridge that bound the number of their threads themselves
+     */
+    static ExecutorService newPlatformThreadPerTaskExecutor(ThreadCustomizer threadCustomizer) {
+        return new ThreadPerTaskExecutor(threadCustomizer.asThreadFactory(Thread::new));
+    }
+
     @Override
     public ExecutorService newVirtualThreadPerTaskExecutor() {
         config.enforceCompatibilityPolicy(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR);
 
-        return newThreadPerTaskExecutor(this::unstartedVirtualThread);
+        return newThreadPerTaskExecutor(virtualThreadFactory());
     }
 
     @Override
     public ExecutorService newVirtualThreadPerTaskExecutor(ThreadCustomizer threadCustomizer, ThreadFactory threadFactory) {
         config.enforceCompatibilityPolicy(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR);
 
-        ThreadFactory actualFactory = threadFactory == null ? this::unstartedVirtualThread : threadFactory;
+        ThreadFactory actualFactory = threadFactory == null ? virtualThreadFactory() : threadFactory;
         return newThreadPerTaskExecutor(threadCustomizer.asThreadFactory(actualFactory));
     }
 
+    @Override
+    public ExecutorService newPinningAwareVirtualThreadPerTaskExecutor(int monitorPoolSize) {
+        if (monitorPoolSize <= 0) {
+            throw new IllegalArgumentException("monitorPoolSize must be positive");
+        }
+        // platform threads do not pin anything
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public <T, R> Stream<R> mapConcurrent(Stream<T> stream, int maxConcurrency, Function<? super T, ? extends R> mapper) {
+        return MapConcurrentSpliterator.mapConcurrent(stream, maxConcurrency, mapper, this);
+    }
+
     @Override
     public OfPlatform ofPlatform() {
         config.enforceCompatibilityPolicy(OF_PLATFORM);
@@ -99,11 +173,36 @@ final class ThreadProvider8 implements ThreadProvider {
         return new ThreadBuilders8.VirtualThreadBuilder();
     }
 
+    @Override
+    public VirtualThreadTelemetry startVirtualThreadTelemetry(VirtualThreadTelemetry.Options options) {
+        config.enforceCompatibilityPolicy(VIRTUAL_THREAD_TELEMETRY);
+        return new NoopVirtualThreadTelemetry();
+    }
+
+    // created on first use of WORK_STEALING_POOL. Async mode runs submitted tasks in FIFO order, like a scheduler
+    private static final class WorkStealingPool {
+        private static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Starts a thread per task. Live tasks are counted in the low bits of {@code ctl}, next to the shutdown and stop
+     * bits, so termination is detected by the last task to end and awaited on a single latch, without joining the
+     * threads one by one.
+     */
     private static class ThreadPerTaskExecutor extends AbstractExecutorService implements ExecutorService {
 
+        private static final int SHUTDOWN = 1 << 30;
+        private static final int STOP = 1 << 29;
+        private static final int COUNT_MASK = STOP - 1;
+        private static final AtomicIntegerFieldUpdater<Worker> WORKER_STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Worker.class, "state");
+
         private final ThreadFactory threadFactory;
-        private volatile boolean isShutdown;
-        private final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        private final AtomicInteger ctl = new AtomicInteger();
+        private final CountDownLatch termination = new CountDownLatch(1);
+        // needed only by shutdownNow; identity hashed, so concurrent adds and removes rarely share a bin
+        private final Set<Worker> workers = ConcurrentHashMap.newKeySet();
 
         public ThreadPerTaskExecutor(ThreadFactory threadFactory) {
             this.threadFactory = threadFactory;
@@ -111,57 +210,115 @@ final class ThreadProvider8 implements ThreadProvider {
 
         @Override
         public void execute(final Runnable command) {
-            if (isShutdown) {
-                throw new IllegalArgumentException("Executor is shut down");
-            }
-            Thread thread = threadFactory.newThread(() -> {
-                try {
-                    command.run();
-                } finally {
-                    threads.remove(Thread.currentThread());
+            Objects.requireNonNull(command, "command is required");
+            int state;
+            do {
+                state = ctl.get();
+                if ((state & SHUTDOWN) != 0) {
+                    throw new RejectedExecutionException("Executor is shut down");
+                }
+            } while (!ctl.compareAndSet(state, state + 1));
+
+            Worker worker = new Worker(command);
+            try {
+                Thread thread = threadFactory.newThread(worker);
+                if (thread == null) {
+                    throw new RejectedExecutionException("ThreadFactory returned no thread");
                 }
-            });
-            threads.add(thread);
-            thread.start();
+                worker.thread = thread;
+                workers.add(worker);
+                thread.start();
+            } catch (RuntimeException | Error e) {
+                workers.remove(worker);
+                taskEnded();
+                throw e;
+            }
+        }
+
+        private void taskEnded() {
+            int state = ctl.decrementAndGet();
+            if ((state & COUNT_MASK) == 0 && (state & SHUTDOWN) != 0) {
+                termination.countDown();
+            }
+        }
+
+        private void setState(int bits) {
+            int state = ctl.getAndUpdate(current -> current | bits);
+            if ((state & COUNT_MASK) == 0) {
+                termination.countDown();
+            }
         }
 
         @Override
         public void shutdown() {
-            isShutdown = true;
+            setState(SHUTDOWN);
         }
 
         @Override
         public List<Runnable> shutdownNow() {
-            shutdown();
-            threads.forEach(Thread::interrupt);
-            return Collections.emptyList();
+            setState(SHUTDOWN | STOP);
+            List<Runnable> unstarted = new ArrayList<>();
+            for (Worker worker : workers) {
+                if (worker.cancel()) {
+                    unstarted.add(worker.command);
+                } else {
+                    worker.thread.interrupt();
+                }
+            }
+            return unstarted;
         }
 
         @Override
         public boolean isShutdown() {
-            return isShutdown;
+            return (ctl.get() & SHUTDOWN) != 0;
         }
 
         @Override
         public boolean isTerminated() {
-            return isShutdown();
+            return termination.getCount() == 0;
         }
 
         @Override
         public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
-            long timeoutMs = unit.toMillis(timeout);
-            for (Thread thread : threads) {
-                if (timeoutMs <= 0) {
-                    return false;
-                }
+            return termination.await(timeout, unit);
+        }
+
+        private final class Worker implements Runnable {
+
+            private static final int NEW = 0;
+            private static final int RUNNING = 1;
+            private static final int CANCELLED = 2;
 
-                long start = System.currentTimeMillis();
-                thread.join(timeoutMs);
-                long diff = System.currentTimeMillis() - start;
-                timeoutMs = timeoutMs - diff;
+            private final Runnable command;
+            private final Runnable task;
+            private volatile Thread thread;
+            // not private, for the field updater of the enclosing class on Java 8
+            volatile int state;
+
+            Worker(Runnable command) {
+                this.command = command;
+                this.task = ScopedContext.wrap(command);
             }
-            return true;
-        }
 
+            boolean cancel() {
+                return WORKER_STATE.compareAndSet(this, NEW, CANCELLED);
+            }
+
+            @Override
+            public void run() {
+                try {
+                    if (WORKER_STATE.compareAndSet(this, NEW, RUNNING)) {
+                        if ((ctl.get() & STOP) != 0) {
+                            // accepted while shutdownNow was interrupting the running tasks
+                            Thread.currentThread().interrupt();
+                        }
+                        task.run();
+                    }
+                } finally {
+                    workers.remove(this);
+                    taskEnded();
+                }
+            }
+        }
     }
 }
@@ -1,22 +1,29 @@
 package io.github.thunkware.vt.bridge;
 
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.Objects;
 
+import static io.github.thunkware.vt.bridge.CompatibilityPolicy.BOUNDED_PLATFORM_POOL;
 import static io.github.thunkware.vt.bridge.CompatibilityPolicy.THROW_EXCEPTION;
+import static io.github.thunkware.vt.bridge.CompatibilityPolicy.WORK_STEALING_POOL;
 import static io.github.thunkware.vt.bridge.ThreadProviderFactory.isJava21;
 
 /**
  * Configuration for {@link ThreadProvider}
+ * <p>
+ * Reads are lock-free: setters publish a new immutable snapshot, so the per-call policy check of the provider is a
+ * volatile read and a bit test. Configure once at startup; setters are not meant for hot paths.
  */
 public class ThreadProviderConfig {
 
-    private final Map<ThreadFeature, CompatibilityPolicy> policies = new EnumMap<>(ThreadFeature.class);
-
-    private ThreadCustomizer threadCustomizer = thread -> {
+    private static final ThreadCustomizer NO_OP_CUSTOMIZER = thread -> {
         // no op
     };
 
+    private final boolean java21 = isJava21();
+
+    private volatile Snapshot snapshot = new Snapshot(new CompatibilityPolicy[ThreadFeature.values().length],
+            NO_OP_CUSTOMIZER, null, new PlatformPoolConfig());
+
     /**
      * Same as setCompatibilityPolicy(ThreadFeature, THROW_EXCEPTION)
      * @param threadFeature ThreadFeature
@@ -32,7 +39,8 @@ public class ThreadProviderConfig {
      * @return CompatibilityPolicy
      */
     public CompatibilityPolicy getCompatibilityPolicy(ThreadFeature threadFeature) {
-        return policies.getOrDefault(threadFeature, CompatibilityPolicy.BEST_EFFORT);
+        CompatibilityPolicy policy = snapshot.policies[threadFeature.ordinal()];
+        return policy != null ? policy : CompatibilityPolicy.BEST_EFFORT;
     }
 
     /**
@@ -41,29 +49,126 @@ public class ThreadProviderConfig {
      * @param policy CompatibilityPolicy
      * @return this
      */
-    public ThreadProviderConfig setCompatibilityPolicy(ThreadFeature threadFeature, CompatibilityPolicy policy) {
-        policies.put(threadFeature, policy);
+    public synchronized ThreadProviderConfig setCompatibilityPolicy(ThreadFeature threadFeature, CompatibilityPolicy policy) {
+        Snapshot current = snapshot;
+        CompatibilityPolicy[] policies = current.policies.clone();
+        policies[threadFeature.ordinal()] = policy;
+        snapshot = new Snapshot(policies, current.threadCustomizer, current.executorMetrics,
+                current.platformPoolConfig);
+        return this;
+    }
+
+    /**
+     * Default {@link ExecutorMetrics} for the executors that support metrics and are created without explicit ones,
+     * e.g. by {@link ExecutorTool#newSemaphoreVirtualExecutor(int)}. Executors created earlier are not affected.
+     *
+     * @return default ExecutorMetrics, or null if metrics are disabled
+     */
+    public ExecutorMetrics getExecutorMetrics() {
+        return snapshot.executorMetrics;
+    }
+
+    /**
+     * Sets the default {@link ExecutorMetrics}, see {@link #getExecutorMetrics()}
+     * @param executorMetrics ExecutorMetrics, or null to disable metrics
+     * @return this
+     */
+    public synchronized ThreadProviderConfig setExecutorMetrics(ExecutorMetrics executorMetrics) {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.policies, current.threadCustomizer, executorMetrics,
+                current.platformPoolConfig);
+        return this;
+    }
+
+    /**
+     * Configuration of the shared pool used by {@link CompatibilityPolicy#BOUNDED_PLATFORM_POOL}
+     *
+     * @return PlatformPoolConfig
+     */
+    public PlatformPoolConfig getPlatformPoolConfig() {
+        return snapshot.platformPoolConfig;
+    }
+
+    /**
+     * Sets the configuration of the shared pool used by {@link CompatibilityPolicy#BOUNDED_PLATFORM_POOL}. If the
+     * pool is already in use, it is replaced and the previous one drains, see {@link PlatformPoolConfig}
+     *
+     * @param platformPoolConfig PlatformPoolConfig
+     * @return this
+     */
+    public synchronized ThreadProviderConfig setPlatformPoolConfig(PlatformPoolConfig platformPoolConfig) {
+        Objects.requireNonNull(platformPoolConfig, "platformPoolConfig is required");
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.policies, current.threadCustomizer, current.executorMetrics,
+                platformPoolConfig);
         return this;
     }
 
     public ThreadCustomizer getThreadCustomizer() {
-        return threadCustomizer;
+        return snapshot.threadCustomizer;
     }
 
-    public void setThreadCustomizer(ThreadCustomizer threadCustomizer) {
-        this.threadCustomizer = threadCustomizer;
+    public synchronized void setThreadCustomizer(ThreadCustomizer threadCustomizer) {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(current.policies, threadCustomizer, current.executorMetrics,
+                current.platformPoolConfig);
     }
 
-    void reset() {
-        policies.clear();
+    synchronized void reset() {
+        Snapshot current = snapshot;
+        snapshot = new Snapshot(new CompatibilityPolicy[ThreadFeature.values().length], current.threadCustomizer, null,
+                new PlatformPoolConfig());
     }
 
     void enforceCompatibilityPolicy(ThreadFeature threadFeature) {
-        if (!isJava21()) {
-            CompatibilityPolicy compatibilityPolicy = getCompatibilityPolicy(threadFeature);
-            if (compatibilityPolicy == THROW_EXCEPTION) {
-                throw new IncompatibilityException("Java21 Virtual Threads feature unexpectedly accessed in Java8+ VM");
+        if (!java21 && (snapshot.throwMask & (1L << threadFeature.ordinal())) != 0) {
+            throw new IncompatibilityException("Java21 Virtual Threads feature unexpectedly accessed in Java8+ VM");
+        }
+    }
+
+    boolean usesPlatformPool(ThreadFeature threadFeature) {
+        return !java21 && (snapshot.poolMask & (1L << threadFeature.ordinal())) != 0;
+    }
+
+    boolean usesWorkStealingPool(ThreadFeature threadFeature) {
+        return !java21 && (snapshot.workStealingMask & (1L << threadFeature.ordinal())) != 0;
+    }
+
+    // immutable, replaced as a whole by the setters. policies is indexed by ThreadFeature ordinal, null is BEST_EFFORT
+    private static final class Snapshot {
+        // only executors run their tasks in a pool: the Thread of startVirtualThread or unstartedVirtualThread must
+        // be alive while its task runs, for join() and isAlive()
+        private static final long POOL_FEATURES = 1L << ThreadFeature.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.ordinal();
+
+        private final CompatibilityPolicy[] policies;
+        private final long throwMask;
+        private final long poolMask;
+        private final long workStealingMask;
+        private final ThreadCustomizer threadCustomizer;
+        private final ExecutorMetrics executorMetrics;
+        private final PlatformPoolConfig platformPoolConfig;
+
+        Snapshot(CompatibilityPolicy[] policies, ThreadCustomizer threadCustomizer, ExecutorMetrics executorMetrics,
+                 PlatformPoolConfig platformPoolConfig) {
+            long throwBits = 0;
+            long poolBits = 0;
+            long workStealingBits = 0;
+            for (int i = 0; i < policies.length; i++) {
+                if (policies[i] == THROW_EXCEPTION) {
+                    throwBits |= 1L << i;
+                } else if (policies[i] == BOUNDED_PLATFORM_POOL) {
+                    poolBits |= 1L << i;
+                } else if (policies[i] == WORK_STEALING_POOL) {
+                    workStealingBits |= 1L << i;
+                }
             }
+            this.policies = policies;
+            this.throwMask = throwBits;
+            this.poolMask = poolBits & POOL_FEATURES;
+            this.workStealingMask = workStealingBits & POOL_FEATURES;
+            this.threadCustomizer = threadCustomizer;
+            this.executorMetrics = executorMetrics;
+            this.platformPoolConfig = platformPoolConfig;
         }
     }
 }
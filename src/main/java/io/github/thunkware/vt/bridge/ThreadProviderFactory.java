@@ -7,16 +7,32 @@ class ThreadProviderFactory {
 
     private static final Boolean isJava21 = isJava21();
     private static final Boolean isJava24 = isJava24();
-    private static ThreadProvider threadProvider;
 
-    // to avoid ugly ExceptionInInitializerError on error, init in a method, not static initializer
-    static synchronized ThreadProvider getThreadProvider() {
-        if (threadProvider != null) {
-            return threadProvider;
+    // initialization-on-demand holder: the JVM publishes the provider once, so the lookup takes no lock
+    private static final class Holder {
+        private static final ThreadProvider PROVIDER;
+        private static final IllegalStateException FAILURE;
+
+        // to avoid ugly ExceptionInInitializerError on error, keep the failure and rethrow it on every lookup
+        static {
+            ThreadProvider provider = null;
+            IllegalStateException failure = null;
+            try {
+                provider = createThreadProvider();
+            } catch (IllegalStateException e) {
+                failure = e;
+            }
+            PROVIDER = provider;
+            FAILURE = failure;
         }
+    }
 
-        threadProvider = createThreadProvider();
-        return threadProvider;
+    static ThreadProvider getThreadProvider() {
+        ThreadProvider provider = Holder.PROVIDER;
+        if (provider == null) {
+            throw new IllegalStateException(Holder.FAILURE.getMessage(), Holder.FAILURE.getCause());
+        }
+        return provider;
     }
 
     static boolean isJava21() {
@@ -52,15 +68,26 @@ class ThreadProviderFactory {
     }
 
     private static ThreadProvider createThreadProvider(boolean isJava21) throws Exception {
+        if (isJava24) {
+            try {
+                return newThreadProvider("ThreadProvider24");
+            } catch (ClassNotFoundException e) {
+                // no java24 release directory, the jar was built with an older JDK
+            }
+        }
         if (isJava21) {
-            // even though we setup multi-release jar, for easier development, use reflection to create. Some IDEs
-            // complains if there are two classes with the same fq name  (even though those are in different release dirs)
-            Class<?> clazz = Class.forName(ThreadProvider.class.getPackage().getName() + ".ThreadProvider21");
-            Constructor<?> constructor = clazz.getDeclaredConstructors()[0];
-            return (ThreadProvider) constructor.newInstance();
+            return newThreadProvider("ThreadProvider21");
         } else {
             return new ThreadProvider8();
         }
     }
 
+    // even though we setup multi-release jar, for easier development, use reflection to create. Some IDEs
+    // complains if there are two classes with the same fq name  (even though those are in different release dirs)
+    private static ThreadProvider newThreadProvider(String simpleName) throws Exception {
+        Class<?> clazz = Class.forName(ThreadProvider.class.getPackage().getName() + "." + simpleName);
+        Constructor<?> constructor = clazz.getDeclaredConstructors()[0];
+        return (ThreadProvider) constructor.newInstance();
+    }
+
 }
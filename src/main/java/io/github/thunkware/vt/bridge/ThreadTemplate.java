@@ -0,0 +1,162 @@
+package io.github.thunkware.vt.bridge;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies the name, uncaught exception handler and context class loader that a {@link ThreadFactory} would give
+ * its threads to other threads, e.g. virtual threads, without creating a throwaway thread per task.
+ *
+ * <p>
+ * Only the factories known to have no side effects besides numbering their threads are learned: the ones of
+ * {@link java.util.concurrent.Executors#defaultThreadFactory()} and of the thread builders. Any other factory is
+ * called for every thread, as it may count, log or register the threads it creates. The first two threads of a known
+ * factory are created by the factory and their attributes are compared. When the names are constant, or a prefix
+ * followed by consecutive numbers such as "pool-1-thread-1" and "pool-1-thread-2", and the other attributes are
+ * equal, the template continues the sequence by itself and the factory is not called again. A factory the template
+ * cannot predict is called for every thread, as before.
+ *
+ * <p>
+ * Once it continues a sequence, the template keeps its own counter, so threads the same factory creates for others
+ * do not advance it. A context class loader equal to the one of the creating thread is taken as inherited, and is
+ * left to the new thread to inherit from its own creating thread.
+ */
+final class ThreadTemplate {
+
+    private enum Mode {
+        LEARNING, FIXED, SEQUENCE, SAMPLING
+    }
+
+    private static final Set<String> JDK_FACTORIES = new HashSet<>(Arrays.asList(
+            "java.util.concurrent.Executors$DefaultThreadFactory",
+            "java.lang.ThreadBuilders$PlatformThreadFactory",
+            "java.lang.ThreadBuilders$VirtualThreadFactory"));
+
+    private final ThreadFactory factory;
+    private volatile Mode mode;
+
+    // written before mode leaves LEARNING, read after
+    private String name;
+    private AtomicLong counter;
+    private UncaughtExceptionHandler handler;
+    private ClassLoader contextClassLoader;
+    private boolean inheritContextClassLoader;
+
+    private ThreadTemplate(ThreadFactory factory) {
+        this.factory = Objects.requireNonNull(factory, "factory is required");
+        this.mode = isKnown(factory) ? Mode.LEARNING : Mode.SAMPLING;
+    }
+
+    private static boolean isKnown(ThreadFactory factory) {
+        return factory instanceof ThreadBuilders8.BaseThreadFactory
+                || JDK_FACTORIES.contains(factory.getClass().getName());
+    }
+
+    static ThreadTemplate of(ThreadFactory factory) {
+        return new ThreadTemplate(factory);
+    }
+
+    /**
+     * Applies the attributes of the factory to an unstarted thread
+     *
+     * @param unstartedThread thread to configure
+     * @param task            task of the thread, passed to the factory while it is called
+     */
+    void apply(Thread unstartedThread, Runnable task) {
+        Mode current = mode;
+        if (current == Mode.LEARNING) {
+            current = learn(unstartedThread, task);
+            if (current == Mode.LEARNING) {
+                return;
+            }
+        }
+
+        if (current == Mode.SAMPLING) {
+            copy(factory.newThread(task), unstartedThread);
+            return;
+        }
+
+        unstartedThread.setName(current == Mode.SEQUENCE ? name + counter.getAndIncrement() : name);
+        unstartedThread.setUncaughtExceptionHandler(handler);
+        if (!inheritContextClassLoader) {
+            unstartedThread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    boolean isSampling() {
+        return mode == Mode.SAMPLING;
+    }
+
+    // the samples are the threads of the first two tasks, so the factory numbers them as without a template
+    private synchronized Mode learn(Thread unstartedThread, Runnable task) {
+        if (mode != Mode.LEARNING) {
+            return mode;
+        }
+
+        Thread sample = factory.newThread(task);
+        copy(sample, unstartedThread);
+        boolean inherited = sample.getContextClassLoader() == Thread.currentThread().getContextClassLoader();
+        if (name == null) {
+            name = sample.getName();
+            handler = sample.getUncaughtExceptionHandler();
+            contextClassLoader = sample.getContextClassLoader();
+            inheritContextClassLoader = inherited;
+            return Mode.LEARNING;
+        }
+
+        mode = compare(sample, inherited);
+        return Mode.LEARNING;
+    }
+
+    private Mode compare(Thread sample, boolean inherited) {
+        if (sample.getUncaughtExceptionHandler() != handler
+                || inherited != inheritContextClassLoader
+                || (!inherited && sample.getContextClassLoader() != contextClassLoader)) {
+            return Mode.SAMPLING;
+        }
+
+        String nextName = sample.getName();
+        if (nextName.equals(name)) {
+            return Mode.FIXED;
+        }
+
+        int first = numberStart(name);
+        int next = numberStart(nextName);
+        if (first < 0 || first != next || !name.regionMatches(0, nextName, 0, first)) {
+            return Mode.SAMPLING;
+        }
+        long firstNumber = Long.parseLong(name.substring(first));
+        long nextNumber = Long.parseLong(nextName.substring(next));
+        if (nextNumber != firstNumber + 1) {
+            return Mode.SAMPLING;
+        }
+
+        counter = new AtomicLong(nextNumber + 1);
+        name = name.substring(0, first);
+        return Mode.SEQUENCE;
+    }
+
+    // index of a trailing number in canonical form (no sign, no leading zero), or -1
+    private static int numberStart(String name) {
+        int start = name.length();
+        while (start > 0 && name.charAt(start - 1) >= '0' && name.charAt(start - 1) <= '9') {
+            start--;
+        }
+        int digits = name.length() - start;
+        if (digits == 0 || digits > 18 || (digits > 1 && name.charAt(start) == '0')) {
+            return -1;
+        }
+        return start;
+    }
+
+    private static void copy(Thread sample, Thread thread) {
+        thread.setName(sample.getName());
+        thread.setUncaughtExceptionHandler(sample.getUncaughtExceptionHandler());
+        thread.setContextClassLoader(sample.getContextClassLoader());
+    }
+}
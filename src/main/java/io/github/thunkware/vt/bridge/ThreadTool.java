@@ -129,6 +129,47 @@ public class ThreadTool {
         return getThreadProvider().ofVirtual();
     }
 
+    /**
+     * On Java 8+, returns a telemetry that records nothing. <p>
+     * On Java 21+, starts streaming virtual thread JFR events (pinning, submit failures) in-process
+     * and aggregates them into counters and the most frequent pinning stack traces.
+     *
+     * @return a started telemetry, to be closed when no longer needed
+     */
+    public static VirtualThreadTelemetry startVirtualThreadTelemetry() {
+        return startVirtualThreadTelemetry(new VirtualThreadTelemetry.Options());
+    }
+
+    /**
+     * On Java 8+, returns a telemetry that records nothing. <p>
+     * On Java 21+, starts streaming virtual thread JFR events in-process and aggregates them.
+     *
+     * @param options what to record
+     * @return a started telemetry, to be closed when no longer needed
+     */
+    public static VirtualThreadTelemetry startVirtualThreadTelemetry(VirtualThreadTelemetry.Options options) {
+        return getThreadProvider().startVirtualThreadTelemetry(options);
+    }
+
+    /**
+     * Makes a blocking call, e.g. I/O or waiting on a lock, from a task that may run in a
+     * {@link java.util.concurrent.ForkJoinPool}, such as the pool of {@link CompatibilityPolicy#WORK_STEALING_POOL}.
+     * The pool adds a thread while the call blocks, so the other tasks keep running. In virtual threads and other
+     * threads, the call is made directly. See {@link ManagedBlocking} for queue and lock adapters.
+     * <pre>{@code
+     * String line = ThreadTool.block(reader::readLine);
+     * }</pre>
+     *
+     * @param call blocking call
+     * @param <T>  result type
+     * @param <X>  exception type
+     * @return result of the call
+     * @throws X exception of the call
+     */
+    public static <T, X extends Throwable> T block(ManagedBlocking.BlockingCall<T, X> call) throws X {
+        return ManagedBlocking.block(call);
+    }
+
     /**
      * A builder for {@link Thread} and {@link ThreadFactory} objects.
      */
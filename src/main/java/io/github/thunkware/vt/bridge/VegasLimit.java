@@ -0,0 +1,76 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+class VegasLimit implements ConcurrencyLimit {
+
+    // re-measure the no-load latency every PROBE_MULTIPLIER * limit samples
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int maxLimit;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile int limit;
+
+    // guarded by lock
+    private double estimatedLimit;
+    private long rttNoLoadNanos;
+    private long samplesUntilProbe;
+
+    VegasLimit(int initialLimit, int maxLimit) {
+        LimitSupport.checkLimits(initialLimit, maxLimit);
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+        this.samplesUntilProbe = (long) PROBE_MULTIPLIER * initialLimit;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void onSample(long rttNanos, int inFlight, boolean dropped) {
+        long rtt = Math.max(1, rttNanos);
+        // a sample lost to contention does not change the estimate much, and samplers must never wait
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (--samplesUntilProbe <= 0) {
+                samplesUntilProbe = (long) PROBE_MULTIPLIER * limit;
+                rttNoLoadNanos = rtt;
+                return;
+            }
+            if (rttNoLoadNanos == 0 || rtt < rttNoLoadNanos) {
+                rttNoLoadNanos = rtt;
+                return;
+            }
+
+            double step = LimitSupport.log10(estimatedLimit);
+            double newLimit;
+            if (dropped) {
+                newLimit = estimatedLimit - step;
+            } else if (inFlight * 2 < estimatedLimit) {
+                return;
+            } else {
+                double queueSize = Math.ceil(estimatedLimit * (1 - (double) rttNoLoadNanos / rtt));
+                double alpha = 3 * step;
+                double beta = 6 * step;
+                if (queueSize <= step) {
+                    newLimit = estimatedLimit + beta;
+                } else if (queueSize < alpha) {
+                    newLimit = estimatedLimit + step;
+                } else if (queueSize > beta) {
+                    newLimit = estimatedLimit - step;
+                } else {
+                    return;
+                }
+            }
+            estimatedLimit = LimitSupport.clamp(newLimit, maxLimit);
+            limit = (int) estimatedLimit;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static io.github.thunkware.vt.bridge.ThreadProviderFactory.getThreadProvider;
+
+/**
+ * {@link CompletableFuture} whose async stages run by default in a new virtual Thread per task on Java 21+, instead
+ * of in {@link java.util.concurrent.ForkJoinPool#commonPool()}, where blocking stages starve the other users of the
+ * pool. On Java 8+ they run in new platform threads, but no more at once than the size of
+ * {@link ThreadProviderConfig#getPlatformPoolConfig()} when the executor is first used, whatever the
+ * {@link CompatibilityPolicy} of {@link ThreadFeature#NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR}.
+ *
+ * <p>
+ * The dependent stages keep this default through {@code newIncompleteFuture()} and {@code defaultExecutor()}, which
+ * {@link CompletableFuture} calls from Java 9 on. On a Java 8 VM, {@code thenApplyAsync(fn)} and the other async
+ * methods without an executor still run in the common pool, unless they are passed
+ * {@link ExecutorTool#getAsyncExecutor()}.
+ */
+final class VirtualCompletableFuture<T> extends CompletableFuture<T> {
+
+    private static final class Holder {
+        private static final Executor EXECUTOR = newExecutor();
+
+        private static Executor newExecutor() {
+            if (ExecutorTool.hasVirtualThreads()) {
+                return getThreadProvider().newVirtualThreadPerTaskExecutor();
+            }
+            // bounded, so not the executor that the compatibility policy guards against. Checking the policy here
+            // would fail the initialization of the class for good, rather than the first call
+            ThreadProviderConfig config = getThreadProvider().getConfig();
+            return new QueueingSemaphoreExecutor(
+                    ThreadProvider8.newPlatformThreadPerTaskExecutor(config.getThreadCustomizer()),
+                    config.getPlatformPoolConfig().getSize());
+        }
+    }
+
+    static Executor asyncExecutor() {
+        return Holder.EXECUTOR;
+    }
+
+    static <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        Objects.requireNonNull(supplier, "supplier is required");
+        VirtualCompletableFuture<T> future = new VirtualCompletableFuture<>();
+        asyncExecutor().execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    static CompletableFuture<Void> run(Runnable runnable) {
+        Objects.requireNonNull(runnable, "runnable is required");
+        return supply(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    static <T> CompletableFuture<T> of(CompletionStage<T> stage) {
+        VirtualCompletableFuture<T> future = new VirtualCompletableFuture<>();
+        stage.whenComplete((value, failure) -> {
+            if (failure == null) {
+                future.complete(value);
+            } else {
+                future.completeExceptionally(failure);
+            }
+        });
+        return future;
+    }
+
+    // overrides the method of Java 9+, not called on Java 8
+    public <U> CompletableFuture<U> newIncompleteFuture() {
+        return new VirtualCompletableFuture<>();
+    }
+
+    // overrides the method of Java 9+, not called on Java 8
+    public Executor defaultExecutor() {
+        return asyncExecutor();
+    }
+}
@@ -0,0 +1,331 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ScheduledExecutorService} that waits for the delays on a {@link HashedWheelTimer} and runs each due task
+ * in its own thread of a delegate executor, typically a virtual thread per task executor.
+ *
+ * <p>
+ * As with {@link java.util.concurrent.ScheduledThreadPoolExecutor} defaults, delayed tasks still run after
+ * {@link #shutdown()}, periodic tasks are cancelled by it, and a periodic task never runs concurrently with itself.
+ *
+ * <p>
+ * Shutdown needs the tasks still waiting for their delay. They are linked in intrusive lists, spread over a few
+ * stripes so that concurrent schedules and cancels rarely share a lock, rather than kept in a concurrent set that
+ * would allocate a node per task.
+ */
+class VirtualScheduledExecutor extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private static final int STRIPES = Math.min(64,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1);
+
+    private final ExecutorService delegate;
+    private final HashedWheelTimer timer;
+    // scheduled tasks not handed to the delegate for good
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private volatile boolean shutdown;
+    private final AtomicBoolean drainedOnce = new AtomicBoolean();
+    private final CountDownLatch drained = new CountDownLatch(1);
+
+    VirtualScheduledExecutor(ExecutorService delegate, HashedWheelTimer timer) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate is required");
+        this.timer = Objects.requireNonNull(timer, "timer is required");
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (isShutdown()) {
+            throw new RejectedExecutionException("Executor is shut down");
+        }
+        delegate.execute(command);
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        Objects.requireNonNull(command, "command is required");
+        return schedule(new ScheduledTask<Void>(command, null, triggerTime(delay, unit), 0));
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        Objects.requireNonNull(callable, "callable is required");
+        return schedule(new ScheduledTask<>(callable, triggerTime(delay, unit)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        Objects.requireNonNull(command, "command is required");
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        long time = triggerTime(initialDelay, unit);
+        return schedule(new ScheduledTask<Void>(command, null, time, unit.toNanos(period)));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+        Objects.requireNonNull(command, "command is required");
+        if (delay <= 0) {
+            throw new IllegalArgumentException("delay must be positive");
+        }
+        long time = triggerTime(initialDelay, unit);
+        return schedule(new ScheduledTask<Void>(command, null, time, -unit.toNanos(delay)));
+    }
+
+    private static long triggerTime(long delay, TimeUnit unit) {
+        // capped so that the nanoTime arithmetic cannot overflow
+        return System.nanoTime() + Math.min(Math.max(0, unit.toNanos(delay)), Long.MAX_VALUE >> 1);
+    }
+
+    private <V> ScheduledTask<V> schedule(ScheduledTask<V> task) {
+        Stripe stripe = task.stripe;
+        stripe.lock.lock();
+        try {
+            // checked under the lock that shutdown takes to collect the tasks, so a task is either rejected or seen
+            if (shutdown) {
+                throw new RejectedExecutionException("Executor is shut down");
+            }
+            stripe.link(task);
+        } finally {
+            stripe.lock.unlock();
+        }
+        task.timeout = timer.newTimeoutAt(task::fire, task.time);
+        return task;
+    }
+
+    private void release(ScheduledTask<?> task) {
+        Stripe stripe = task.stripe;
+        boolean unlinked;
+        stripe.lock.lock();
+        try {
+            unlinked = stripe.unlink(task);
+        } finally {
+            stripe.lock.unlock();
+        }
+        if (unlinked && shutdown && isEmpty()) {
+            onDrained();
+        }
+    }
+
+    // tasks waiting for their delay, periodic ones only unless all
+    private List<ScheduledTask<?>> collect(boolean all) {
+        List<ScheduledTask<?>> tasks = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                for (ScheduledTask<?> task = stripe.head; task != null; task = task.next) {
+                    if (all || task.isPeriodic()) {
+                        tasks.add(task);
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return tasks;
+    }
+
+    private boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                if (stripe.head != null) {
+                    return false;
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return true;
+    }
+
+    private void onDrained() {
+        if (drainedOnce.compareAndSet(false, true)) {
+            delegate.shutdown();
+            drained.countDown();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (ScheduledTask<?> task : collect(false)) {
+            task.cancel(false);
+        }
+        if (isEmpty()) {
+            onDrained();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        List<Runnable> unstarted = new ArrayList<>();
+        for (ScheduledTask<?> task : collect(true)) {
+            if (task.cancel(false)) {
+                unstarted.add(task);
+            }
+        }
+        unstarted.addAll(delegate.shutdownNow());
+        return unstarted;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return drained.getCount() == 0 && delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!drained.await(timeout, unit)) {
+            return false;
+        }
+        return delegate.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    private final class ScheduledTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        // positive for fixed rate, negative for fixed delay, zero for a delayed task
+        private final long period;
+        private volatile long time;
+        private volatile HashedWheelTimer.Timeout timeout;
+        private final Stripe stripe = stripes[ThreadLocalRandom.current().nextInt(STRIPES)];
+        // guarded by the lock of the stripe, linked while the task waits for its delay
+        private boolean linked;
+        private ScheduledTask<?> prev;
+        private ScheduledTask<?> next;
+
+        ScheduledTask(Runnable runnable, V result, long time, long period) {
+            super(ScopedContext.wrap(runnable), result);
+            this.time = time;
+            this.period = period;
+        }
+
+        ScheduledTask(Callable<V> callable, long time) {
+            super(ScopedContext.wrap(callable));
+            this.time = time;
+            this.period = 0;
+        }
+
+        // on the timer thread, must not block
+        void fire() {
+            if (isDone()) {
+                release(this);
+                return;
+            }
+            try {
+                delegate.execute(this);
+            } catch (RejectedExecutionException e) {
+                cancel(false);
+                release(this);
+                return;
+            }
+            if (!isPeriodic()) {
+                // the delegate tracks it from now on
+                release(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (!isPeriodic()) {
+                super.run();
+            } else if (runAndReset() && !isShutdown()) {
+                time = period > 0 ? time + period : System.nanoTime() - period;
+                timeout = timer.newTimeoutAt(this::fire, time);
+            } else {
+                cancel(false);
+                release(this);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            HashedWheelTimer.Timeout current = timeout;
+            if (cancelled && current != null && current.cancel()) {
+                // the timer will not fire it anymore
+                release(this);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) {
+                return 0;
+            }
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    // intrusive doubly linked list of tasks
+    private static final class Stripe {
+        private final Lock lock = new ReentrantLock();
+        private ScheduledTask<?> head;
+
+        void link(ScheduledTask<?> task) {
+            task.linked = true;
+            task.next = head;
+            if (head != null) {
+                head.prev = task;
+            }
+            head = task;
+        }
+
+        boolean unlink(ScheduledTask<?> task) {
+            if (!task.linked) {
+                return false;
+            }
+            task.linked = false;
+            if (task.prev != null) {
+                task.prev.next = task.next;
+            } else {
+                head = task.next;
+            }
+            if (task.next != null) {
+                task.next.prev = task.prev;
+            }
+            task.prev = null;
+            task.next = null;
+            return true;
+        }
+    }
+}
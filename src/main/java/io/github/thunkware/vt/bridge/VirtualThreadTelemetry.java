@@ -0,0 +1,189 @@
+package io.github.thunkware.vt.bridge;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Continuous, in-process view of virtual thread events: how often and where virtual threads pin their carrier,
+ * and how often they could not be scheduled.
+ *
+ * <p>
+ * On Java 21+ the events are read from a JFR event stream, so nothing needs to be configured on the command line
+ * and no recording file has to be analysed. On Java 8+ there are no virtual threads, the telemetry records nothing
+ * and {@link #isActive()} returns false.
+ *
+ * <p>
+ * Memory is bounded: only counters and up to {@link Options#maxStackTraces(int)} distinct pinning stack traces are kept.
+ *
+ * @see ThreadTool#startVirtualThreadTelemetry()
+ * @since 0.0.11
+ */
+public interface VirtualThreadTelemetry extends AutoCloseable {
+
+    /**
+     * @return true if events are being recorded
+     */
+    boolean isActive();
+
+    /**
+     * @return number of times a virtual thread pinned its carrier for longer than {@link Options#pinnedThreshold(Duration)}
+     */
+    long getPinnedCount();
+
+    /**
+     * @return total time virtual threads were pinned, over the pinning events counted by {@link #getPinnedCount()}
+     */
+    Duration getPinnedDuration();
+
+    /**
+     * @return number of times a virtual thread could not be scheduled or rescheduled on a carrier
+     */
+    long getSubmitFailedCount();
+
+    /**
+     * @return number of virtual threads started, if {@link Options#threadLifecycle(boolean)} is enabled, otherwise 0
+     */
+    long getStartedCount();
+
+    /**
+     * @return number of virtual threads terminated, if {@link Options#threadLifecycle(boolean)} is enabled, otherwise 0
+     */
+    long getEndedCount();
+
+    /**
+     * Stack traces that pinned most often. Once {@link Options#maxStackTraces(int)} are kept, a new stack trace
+     * replaces the one counted least, so frequent stack traces are found even if they first show up late, and the
+     * counts are estimates that may be too high by the count of the replaced stack trace.
+     *
+     * @param limit maximum number of stack traces to return
+     * @return stack traces that pinned most often, most frequent first
+     * @throws IllegalArgumentException if limit is negative
+     */
+    List<PinnedStackTrace> getTopPinnedStackTraces(int limit);
+
+    /**
+     * Stops recording. Counters keep their last values.
+     */
+    @Override
+    void close();
+
+    /**
+     * Stack trace of the pinning virtual threads with the number of pinning events and the total pinned time
+     */
+    final class PinnedStackTrace {
+        private final StackTraceElement[] stackTrace;
+        private final long count;
+        private final Duration duration;
+
+        public PinnedStackTrace(StackTraceElement[] stackTrace, long count, Duration duration) {
+            this.stackTrace = stackTrace.clone();
+            this.count = count;
+            this.duration = Objects.requireNonNull(duration);
+        }
+
+        /**
+         * @return stack trace of the pinned virtual thread, top frame first
+         */
+        public StackTraceElement[] getStackTrace() {
+            return stackTrace.clone();
+        }
+
+        /**
+         * @return number of pinning events with this stack trace
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return total pinned time with this stack trace
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return "PinnedStackTrace[count=" + count + ", duration=" + duration + ", stackTrace="
+                    + Arrays.toString(stackTrace) + "]";
+        }
+    }
+
+    /**
+     * What to record. The defaults are cheap enough to leave on in production.
+     */
+    final class Options {
+        private Duration pinnedThreshold = Duration.ofMillis(20);
+        private boolean threadLifecycle;
+        private int maxStackTraces = 32;
+        private int stackDepth = 64;
+
+        public Duration getPinnedThreshold() {
+            return pinnedThreshold;
+        }
+
+        /**
+         * @param pinnedThreshold minimum pinned time of a recorded pinning event. Default is 20ms, as in JFR
+         * @return this
+         */
+        public Options pinnedThreshold(Duration pinnedThreshold) {
+            this.pinnedThreshold = Objects.requireNonNull(pinnedThreshold);
+            return this;
+        }
+
+        public boolean isThreadLifecycle() {
+            return threadLifecycle;
+        }
+
+        /**
+         * Virtual thread start and end events are emitted for every virtual thread, so they cost a few
+         * percent of thread creation throughput. Default is false.
+         *
+         * <p>
+         * This is an on/off switch rather than a sampling rate: JFR cannot throttle these events, so their cost is
+         * paid when they are emitted, and counting only some of them in the stream would not make them cheaper.
+         *
+         * @param threadLifecycle true to count started and terminated virtual threads
+         * @return this
+         */
+        public Options threadLifecycle(boolean threadLifecycle) {
+            this.threadLifecycle = threadLifecycle;
+            return this;
+        }
+
+        public int getMaxStackTraces() {
+            return maxStackTraces;
+        }
+
+        /**
+         * @param maxStackTraces maximum number of distinct pinning stack traces kept, the least frequent being replaced
+         *                       by new ones. Pinning events are all counted either way. Default is 32
+         * @return this
+         */
+        public Options maxStackTraces(int maxStackTraces) {
+            if (maxStackTraces < 0) {
+                throw new IllegalArgumentException("maxStackTraces must not be negative");
+            }
+            this.maxStackTraces = maxStackTraces;
+            return this;
+        }
+
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        /**
+         * @param stackDepth maximum number of frames kept per pinning stack trace. Default is 64
+         * @return this
+         */
+        public Options stackDepth(int stackDepth) {
+            if (stackDepth < 1) {
+                throw new IllegalArgumentException("stackDepth must be at least 1");
+            }
+            this.stackDepth = stackDepth;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.thunkware.vt.bridge;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link VirtualThreadTelemetry} that consumes JFR virtual thread events in-process from a {@link RecordingStream}
+ */
+final class JfrVirtualThreadTelemetry implements VirtualThreadTelemetry {
+
+    private static final String PINNED = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED = "jdk.VirtualThreadSubmitFailed";
+    private static final String START = "jdk.VirtualThreadStart";
+    private static final String END = "jdk.VirtualThreadEnd";
+
+    private final RecordingStream stream = new RecordingStream();
+    private final int maxStackTraces;
+    private final int stackDepth;
+
+    private final LongAdder pinned = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final LongAdder submitFailed = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder ended = new LongAdder();
+    private final PinnedStackTraces stackTraces;
+    private volatile boolean active = true;
+
+    JfrVirtualThreadTelemetry(Options options) {
+        this.maxStackTraces = options.getMaxStackTraces();
+        this.stackDepth = options.getStackDepth();
+        this.stackTraces = new PinnedStackTraces(maxStackTraces);
+
+        stream.enable(PINNED).withThreshold(options.getPinnedThreshold()).withStackTrace();
+        stream.enable(SUBMIT_FAILED).withoutStackTrace();
+        stream.onEvent(PINNED, this::onPinned);
+        stream.onEvent(SUBMIT_FAILED, event -> submitFailed.increment());
+        if (options.isThreadLifecycle()) {
+            stream.enable(START).withoutStackTrace();
+            stream.enable(END).withoutStackTrace();
+            stream.onEvent(START, event -> started.increment());
+            stream.onEvent(END, event -> ended.increment());
+        }
+        // events are aggregated as they arrive, so the stream does not need to keep history
+        stream.setMaxAge(Duration.ofSeconds(10));
+        stream.startAsync();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinned.increment();
+        pinnedNanos.add(nanos);
+
+        RecordedStackTrace recordedStackTrace = event.getStackTrace();
+        if (recordedStackTrace == null || maxStackTraces == 0) {
+            return;
+        }
+        stackTraces.add(toStackTrace(recordedStackTrace), nanos);
+    }
+
+    private List<StackTraceElement> toStackTrace(RecordedStackTrace recordedStackTrace) {
+        List<RecordedFrame> frames = recordedStackTrace.getFrames();
+        int depth = Math.min(frames.size(), stackDepth);
+        List<StackTraceElement> stackTrace = new ArrayList<>(depth);
+        for (int i = 0; i < depth; i++) {
+            RecordedFrame frame = frames.get(i);
+            stackTrace.add(new StackTraceElement(frame.getMethod().getType().getName(), frame.getMethod().getName(),
+                    null, frame.getLineNumber()));
+        }
+        return stackTrace;
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    @Override
+    public Duration getPinnedDuration() {
+        return Duration.ofNanos(pinnedNanos.sum());
+    }
+
+    @Override
+    public long getSubmitFailedCount() {
+        return submitFailed.sum();
+    }
+
+    @Override
+    public long getStartedCount() {
+        return started.sum();
+    }
+
+    @Override
+    public long getEndedCount() {
+        return ended.sum();
+    }
+
+    @Override
+    public List<PinnedStackTrace> getTopPinnedStackTraces(int limit) {
+        return stackTraces.top(limit);
+    }
+
+    @Override
+    public void close() {
+        active = false;
+        stream.close();
+    }
+
+    @Override
+    public String toString() {
+        return "VirtualThreadTelemetry[pinned=" + getPinnedCount() + ", pinnedDuration=" + getPinnedDuration()
+                + ", submitFailed=" + getSubmitFailedCount() + ", started=" + getStartedCount()
+                + ", ended=" + getEndedCount() + "]";
+    }
+}
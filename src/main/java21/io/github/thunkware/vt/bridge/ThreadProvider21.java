@@ -6,8 +6,10 @@ import io.github.thunkware.vt.bridge.ThreadTool.Builder.OfVirtual;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
-final class ThreadProvider21 implements ThreadProvider {
+class ThreadProvider21 implements ThreadProvider {
 
     private final ThreadProviderConfig config = new ThreadProviderConfig();
 
@@ -40,16 +42,13 @@ final class ThreadProvider21 implements ThreadProvider {
 
     @Override
     public Thread unstartedVirtualThread(Runnable task) {
-        return unstartedVirtualThread(task, config.getThreadCustomizer(), null);
+        return unstartedVirtualThread(ScopedContext.wrap(task), config.getThreadCustomizer(), null);
     }
 
-    private Thread unstartedVirtualThread(Runnable task, ThreadCustomizer threadCustomizer, ThreadFactory threadFactory) {
+    private Thread unstartedVirtualThread(Runnable task, ThreadCustomizer threadCustomizer, ThreadTemplate threadTemplate) {
         Thread thread = Thread.ofVirtual().unstarted(task);
-        if (threadFactory != null) {
-            Thread sample = threadFactory.newThread(task);
-            thread.setName(sample.getName());
-            thread.setUncaughtExceptionHandler(sample.getUncaughtExceptionHandler());
-            thread.setContextClassLoader(sample.getContextClassLoader());
+        if (threadTemplate != null) {
+            threadTemplate.apply(thread, task);
         }
         threadCustomizer.customize(thread);
         return thread;
@@ -57,7 +56,8 @@ final class ThreadProvider21 implements ThreadProvider {
 
     @Override
     public ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
-        return Executors.newThreadPerTaskExecutor(config.getThreadCustomizer().asThreadFactory(threadFactory));
+        ThreadFactory factory = config.getThreadCustomizer().asThreadFactory(threadFactory);
+        return Executors.newThreadPerTaskExecutor(runnable -> factory.newThread(ScopedContext.wrap(runnable)));
     }
 
     @Override
@@ -68,7 +68,25 @@ final class ThreadProvider21 implements ThreadProvider {
 
     @Override
     public ExecutorService newVirtualThreadPerTaskExecutor(ThreadCustomizer threadCustomizer, ThreadFactory threadFactory) {
-        return newThreadPerTaskExecutor(runnable -> unstartedVirtualThread(runnable, threadCustomizer, threadFactory));
+        ThreadTemplate threadTemplate = threadFactory != null ? ThreadTemplate.of(threadFactory) : null;
+        return newThreadPerTaskExecutor(runnable -> unstartedVirtualThread(runnable, threadCustomizer, threadTemplate));
+    }
+
+    @Override
+    public ExecutorService newPinningAwareVirtualThreadPerTaskExecutor(int monitorPoolSize) {
+        if (monitorPoolSize <= 0) {
+            throw new IllegalArgumentException("monitorPoolSize must be positive");
+        }
+        // on Java 24+ from a jar built without the java24 release directory
+        if (hasSafeVirtualThreads()) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        return new PinningAwareExecutor(newVirtualThreadPerTaskExecutor(), monitorPoolSize);
+    }
+
+    @Override
+    public <T, R> Stream<R> mapConcurrent(Stream<T> stream, int maxConcurrency, Function<? super T, ? extends R> mapper) {
+        return MapConcurrentSpliterator.mapConcurrent(stream, maxConcurrency, mapper, this);
     }
 
     @Override
@@ -81,4 +99,14 @@ final class ThreadProvider21 implements ThreadProvider {
         return new ThreadBuilders21.VirtualThreadBuilder();
     }
 
+    @Override
+    public VirtualThreadTelemetry startVirtualThreadTelemetry(VirtualThreadTelemetry.Options options) {
+        try {
+            return new JfrVirtualThreadTelemetry(options);
+        } catch (NoClassDefFoundError e) {
+            // runtime image without the jdk.jfr module
+            return new NoopVirtualThreadTelemetry();
+        }
+    }
+
 }
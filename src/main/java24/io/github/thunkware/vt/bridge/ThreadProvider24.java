@@ -0,0 +1,32 @@
+package io.github.thunkware.vt.bridge;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Gatherers;
+import java.util.stream.Stream;
+
+/**
+ * Java 24+ provider: virtual threads no longer pin their carrier thread in synchronized blocks (JEP 491),
+ * so nothing has to be routed around them. Stream gatherers are final (JEP 485), so the JDK maps streams
+ * concurrently.
+ */
+final class ThreadProvider24 extends ThreadProvider21 {
+
+    @Override
+    public boolean hasSafeVirtualThreads() {
+        return true;
+    }
+
+    @Override
+    public ExecutorService newPinningAwareVirtualThreadPerTaskExecutor(int monitorPoolSize) {
+        if (monitorPoolSize <= 0) {
+            throw new IllegalArgumentException("monitorPoolSize must be positive");
+        }
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public <T, R> Stream<R> mapConcurrent(Stream<T> stream, int maxConcurrency, Function<? super T, ? extends R> mapper) {
+        return stream.gather(Gatherers.mapConcurrent(maxConcurrency, ScopedContext.wrap(mapper)));
+    }
+}
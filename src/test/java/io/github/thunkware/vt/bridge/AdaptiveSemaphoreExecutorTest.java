@@ -0,0 +1,62 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class AdaptiveSemaphoreExecutorTest {
+
+    @Test
+    void testLimitAndInFlight() throws Exception {
+        AdaptiveSemaphoreExecutor executor = ExecutorTool.newAdaptiveSemaphoreVirtualExecutor(
+                ConcurrencyLimit.aimd(2, 2, Duration.ofSeconds(10)));
+        assertThat(executor.getLimit()).isEqualTo(2);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(executor.submit(() -> {
+                started.incrementAndGet();
+                return latch.await(10, TimeUnit.SECONDS);
+            }));
+        }
+
+        Thread.sleep(100);
+        assertThat(started.get()).isEqualTo(2);
+        assertThat(executor.getInFlight()).isEqualTo(2);
+
+        latch.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getInFlight()).isZero();
+    }
+
+    @Test
+    void testFailuresReduceLimit() throws Exception {
+        AdaptiveSemaphoreExecutor executor = ExecutorTool.newAdaptiveSemaphoreVirtualExecutor(
+                ConcurrencyLimit.aimd(10, 10, Duration.ofSeconds(10)));
+
+        Future<Object> future = executor.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> future.get(10, TimeUnit.SECONDS));
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.getLimit()).isEqualTo(9);
+    }
+}
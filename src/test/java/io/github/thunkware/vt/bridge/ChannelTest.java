@@ -0,0 +1,155 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChannelTest {
+
+    @Test
+    void testBounded() throws Exception {
+        Channel<Integer> channel = Channel.newChannel(2);
+        assertThat(channel.trySend(1)).isTrue();
+        channel.send(2);
+        assertThat(channel.trySend(3)).isFalse();
+        assertThat(channel.send(3, 10, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(channel.size()).isEqualTo(2);
+
+        Thread sender = ThreadTool.startVirtualThread(() -> {
+            try {
+                channel.send(3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(channel.receive()).isEqualTo(1);
+        assertThat(channel.receive()).isEqualTo(2);
+        assertThat(channel.receive(10, TimeUnit.SECONDS)).isEqualTo(3);
+        assertThat(channel.tryReceive()).isNull();
+        assertThat(channel.receive(10, TimeUnit.MILLISECONDS)).isNull();
+        sender.join();
+    }
+
+    @Test
+    void testClose() throws Exception {
+        Channel<String> channel = Channel.newUnboundedChannel();
+        channel.send("a");
+        channel.close();
+        channel.close();
+
+        assertThat(channel.isClosed()).isTrue();
+        assertThatThrownBy(() -> channel.send("b")).isInstanceOf(ChannelClosedException.class);
+        assertThat(channel.receive()).isEqualTo("a");
+        assertThatThrownBy(channel::receive).isInstanceOf(ChannelClosedException.class);
+        assertThatThrownBy(channel::tryReceive).isInstanceOf(ChannelClosedException.class);
+    }
+
+    @Test
+    void testCloseReleasesWaiters() throws Exception {
+        Channel<String> full = Channel.newChannel(1);
+        full.send("a");
+        Channel<String> empty = Channel.newChannel(1);
+        Latch released = Latch.newLatch(2);
+        ThreadTool.startVirtualThread(() -> {
+            try {
+                full.send("b");
+            } catch (ChannelClosedException e) {
+                released.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        ThreadTool.startVirtualThread(() -> {
+            try {
+                empty.receive();
+            } catch (ChannelClosedException e) {
+                released.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(released.await(20, TimeUnit.MILLISECONDS)).isFalse();
+        full.close();
+        empty.close();
+
+        assertThat(released.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(full.receive()).isEqualTo("a");
+    }
+
+    @Test
+    void testSelect() throws Exception {
+        Channel<Integer> numbers = Channel.newChannel(10);
+        Channel<String> words = Channel.newChannel(10);
+        assertThat(Channel.<Object>select(10, TimeUnit.MILLISECONDS, numbers, words)).isNull();
+
+        ThreadTool.startVirtualThread(() -> {
+            try {
+                words.send("a");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Channel.Selected<Object> selected = Channel.select(numbers, words);
+        assertThat(selected.getChannel()).isSameAs(words);
+        assertThat(selected.getValue()).isEqualTo("a");
+
+        numbers.close();
+        words.send("b");
+        words.close();
+        assertThat(Channel.<Object>select(numbers, words).getValue()).isEqualTo("b");
+        assertThatThrownBy(() -> Channel.<Object>select(numbers, words)).isInstanceOf(ChannelClosedException.class);
+    }
+
+    @Test
+    void testManyProducersAndConsumers() throws Exception {
+        int producers = 8;
+        int consumers = 8;
+        int count = 10_000;
+        Channel<Integer> channel = Channel.newChannel(16);
+        ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Long>> sums = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                sums.add(executor.submit(() -> {
+                    long sum = 0;
+                    try {
+                        while (true) {
+                            sum += channel.receive();
+                        }
+                    } catch (ChannelClosedException e) {
+                        return sum;
+                    }
+                }));
+            }
+            List<Future<?>> sends = new ArrayList<>();
+            for (int i = 0; i < producers; i++) {
+                sends.add(executor.submit(() -> {
+                    for (int j = 1; j <= count; j++) {
+                        channel.send(j);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> send : sends) {
+                send.get(30, TimeUnit.SECONDS);
+            }
+            channel.close();
+
+            long total = 0;
+            for (Future<Long> sum : sums) {
+                total += sum.get(30, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(producers * (long) count * (count + 1) / 2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void testAimd() {
+        ConcurrencyLimit limit = ConcurrencyLimit.aimd(10, 20, Duration.ofMillis(100));
+
+        limit.onSample(FAST, 10, false);
+        assertThat(limit.getLimit()).isEqualTo(11);
+
+        // not busy: no growth
+        limit.onSample(FAST, 1, false);
+        assertThat(limit.getLimit()).isEqualTo(11);
+
+        limit.onSample(SLOW, 10, false);
+        assertThat(limit.getLimit()).isEqualTo(9);
+
+        limit.onSample(FAST, 10, true);
+        assertThat(limit.getLimit()).isEqualTo(8);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST, 20, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(20);
+
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(SLOW, 20, false);
+        }
+        assertThat(limit.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    void testVegas() {
+        ConcurrencyLimit limit = ConcurrencyLimit.vegas(10, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, limit.getLimit(), false);
+        }
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(10);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(SLOW, limit.getLimit(), false);
+        }
+        assertThat(limit.getLimit()).isLessThan(grown).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testGradient() {
+        ConcurrencyLimit limit = ConcurrencyLimit.gradient(10, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(FAST, limit.getLimit(), false);
+        }
+        int grown = limit.getLimit();
+        assertThat(grown).isGreaterThan(10).isLessThanOrEqualTo(100);
+
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(SLOW, limit.getLimit(), false);
+        }
+        assertThat(limit.getLimit()).isLessThan(grown).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ConcurrencyLimit.gradient(0, 10));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ConcurrencyLimit.vegas(10, 5));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> ConcurrencyLimit.aimd(1, 5, Duration.ZERO));
+    }
+}
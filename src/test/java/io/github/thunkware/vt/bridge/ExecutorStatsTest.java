@@ -0,0 +1,101 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static io.github.thunkware.vt.bridge.ThreadProvider.getThreadProvider;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ExecutorStatsTest {
+
+    @AfterEach
+    void tearDown() {
+        getThreadProvider().getConfig().reset();
+    }
+
+    @Test
+    void testQueueingSemaphoreExecutor() throws Exception {
+        ExecutorStats stats = new ExecutorStats();
+        ExecutorService executor = ExecutorTool.newSemaphoreVirtualExecutor(2, stats);
+        CountDownLatch latch = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(executor.submit(() -> latch.await(10, TimeUnit.SECONDS)));
+        }
+
+        Thread.sleep(100);
+        assertThat(stats.getSubmitted()).isEqualTo(4);
+        assertThat(stats.getStarted()).isEqualTo(2);
+        assertThat(stats.getInFlight()).isEqualTo(2);
+        assertThat(stats.getQueued()).isEqualTo(2);
+        assertThat(stats.getAvailablePermits()).isZero();
+
+        latch.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        Future<?> failed = executor.submit(() -> {
+            throw new IllegalStateException();
+        });
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> failed.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(stats.getSubmitted()).isEqualTo(5);
+        assertThat(stats.getCompleted()).isEqualTo(4);
+        assertThat(stats.getFailed()).isOne();
+        assertThat(stats.getInFlight()).isZero();
+        assertThat(stats.getQueued()).isZero();
+        assertThat(stats.getAvailablePermits()).isEqualTo(2);
+        assertThat(stats.getTotalQueueTime()).isPositive();
+        assertThat(stats.getTotalRunTime()).isPositive();
+    }
+
+    @Test
+    void testSemaphoreExecutor() throws Exception {
+        ExecutorStats stats = new ExecutorStats();
+        SemaphoreExecutor executor = new SemaphoreExecutor(ExecutorTool.newVirtualThreadPerTaskExecutor(),
+                new Semaphore(1), stats);
+
+        Future<String> completed = executor.submit(() -> "done");
+        Future<String> failed = executor.submit(() -> {
+            throw new IllegalStateException();
+        });
+
+        assertThat(completed.get(10, TimeUnit.SECONDS)).isEqualTo("done");
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> failed.get(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(stats.getSubmitted()).isEqualTo(2);
+        assertThat(stats.getCompleted()).isOne();
+        assertThat(stats.getFailed()).isOne();
+        assertThat(stats.getAvailablePermits()).isOne();
+    }
+
+    @Test
+    void testDefaultMetrics() throws Exception {
+        ExecutorStats stats = new ExecutorStats();
+        getThreadProvider().getConfig().setExecutorMetrics(stats);
+
+        ExecutorService executor = ExecutorTool.newSemaphoreVirtualExecutor(1);
+        executor.submit(() -> "done").get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(stats.getSubmitted()).isOne();
+        assertThat(stats.getCompleted()).isOne();
+        assertThat(stats.getAvailablePermits()).isOne();
+    }
+}
@@ -10,6 +10,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -41,7 +42,7 @@ class ExecutorTool8Test {
     }
 
     @Test
-    void testNewVirtualThreadPerTaskExecutorShutdownNow() {
+    void testNewVirtualThreadPerTaskExecutorShutdownNow() throws InterruptedException {
         assertThat(ExecutorTool.hasVirtualThreads()).isFalse();
 
         CountDownLatch latch = new CountDownLatch(1);
@@ -58,6 +59,60 @@ class ExecutorTool8Test {
         assertThat(latch.getCount()).isOne();
 
         assertThat(executor.isShutdown()).isTrue();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+        assertThatThrownBy(() -> executor.execute(latch::countDown)).isInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    void testNewThreadPerTaskExecutorShutdownNowUnstarted() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = ExecutorTool.newThreadPerTaskExecutor(runnable -> {
+            // the thread waits before running its task, so the task is still unstarted at shutdownNow
+            return new Thread(() -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                runnable.run();
+            });
+        });
+        AtomicInteger runs = new AtomicInteger();
+        Runnable task = runs::incrementAndGet;
+        executor.execute(task);
+
+        List<Runnable> tasks = executor.shutdownNow();
+        assertThat(tasks).containsExactly(task);
+        assertThat(executor.isTerminated()).isFalse();
+
+        release.countDown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void testNewThreadPerTaskExecutorTermination() throws InterruptedException {
+        ExecutorService executor = ExecutorTool.newThreadPerTaskExecutor(Thread::new);
+        CountDownLatch latch = new CountDownLatch(1);
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(executor.isTerminated()).isFalse();
+        assertThat(executor.awaitTermination(100, TimeUnit.MILLISECONDS)).isFalse();
+
+        latch.countDown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
         assertThat(executor.isTerminated()).isTrue();
     }
 
@@ -96,6 +151,94 @@ class ExecutorTool8Test {
         assertThat(stopWatch.getTime(TimeUnit.MILLISECONDS)).isBetween(2500L, 4500L);
     }
 
+    @Test
+    void testNewVirtualThreadPerTaskExecutorBoundedPlatformPool() throws InterruptedException {
+        ThreadTool.getConfig()
+                .setPlatformPoolConfig(new PlatformPoolConfig().size(2))
+                .setCompatibilityPolicy(ThreadFeature.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR, CompatibilityPolicy.BOUNDED_PLATFORM_POOL);
+        try {
+            ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+            AtomicInteger completed = new AtomicInteger();
+            for (int i = 0; i < 10; i++) {
+                executor.execute(() -> {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    completed.incrementAndGet();
+                });
+            }
+
+            executor.shutdown();
+            // 10 tasks of 50ms on 2 pool threads
+            StopWatch stopWatch = StopWatch.createStarted();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(stopWatch.getTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(150L);
+            assertThat(completed).hasValue(10);
+        } finally {
+            ThreadTool.getConfig().reset();
+        }
+    }
+
+    @Test
+    void testNewVirtualThreadPerTaskExecutorBoundedPlatformPoolShutdownNow() throws InterruptedException {
+        ThreadTool.getConfig()
+                .setCompatibilityPolicy(ThreadFeature.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR, CompatibilityPolicy.BOUNDED_PLATFORM_POOL);
+        try {
+            ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch interrupted = new CountDownLatch(1);
+            executor.execute(() -> {
+                assertThat(Thread.currentThread().isDaemon()).isTrue();
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            });
+
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            executor.shutdownNow();
+            assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            ThreadTool.getConfig().reset();
+        }
+    }
+
+    @Test
+    void testNewVirtualThreadPerTaskExecutorBoundedPlatformPoolReject() throws InterruptedException {
+        ThreadTool.getConfig()
+                .setPlatformPoolConfig(new PlatformPoolConfig().size(1).queueCapacity(1)
+                        .overflow(PlatformPoolConfig.Overflow.REJECT))
+                .setCompatibilityPolicy(ThreadFeature.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR, CompatibilityPolicy.BOUNDED_PLATFORM_POOL);
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+            Runnable task = () -> {
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+            executor.execute(task);
+            executor.execute(task);
+            assertThatThrownBy(() -> executor.execute(task)).isInstanceOf(RejectedExecutionException.class);
+
+            // replacing the pool lets the previous one drain
+            ThreadTool.getConfig().setPlatformPoolConfig(new PlatformPoolConfig().size(1));
+            latch.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            latch.countDown();
+            ThreadTool.getConfig().reset();
+        }
+    }
+
     @Test
     void testNewSemaphoreVirtualExecutorWithAquireTimeout() throws InterruptedException {
 
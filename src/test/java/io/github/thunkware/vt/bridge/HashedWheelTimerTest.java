@@ -0,0 +1,85 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedWheelTimerTest {
+
+    // a small wheel, so that 100ms is several rounds
+    private final HashedWheelTimer timer = new HashedWheelTimer("test-timer", TimeUnit.MILLISECONDS.toNanos(1), 16);
+
+    @Test
+    void testExpiresInOrder() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+        long start = System.nanoTime();
+        timer.newTimeout(() -> {
+            fired.add(100);
+            latch.countDown();
+        }, 100, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> {
+            fired.add(50);
+            latch.countDown();
+        }, 50, TimeUnit.MILLISECONDS);
+        timer.newTimeout(() -> {
+            fired.add(0);
+            latch.countDown();
+        }, 0, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(fired).containsExactly(0, 50, 100);
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void testCancel() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        HashedWheelTimer.Timeout cancelled = timer.newTimeout(fired::incrementAndGet, 20, TimeUnit.MILLISECONDS);
+        CountDownLatch latch = new CountDownLatch(1);
+        HashedWheelTimer.Timeout expired = timer.newTimeout(latch::countDown, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(fired).hasValue(0);
+        assertThat(cancelled.isCancelled()).isTrue();
+        assertThat(expired.isExpired()).isTrue();
+        assertThat(expired.cancel()).isFalse();
+    }
+
+    @Test
+    void testManyTimeouts() throws InterruptedException {
+        int count = 100_000;
+        // counted down by every timeout, either when it expires or when it is cancelled before
+        CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            HashedWheelTimer.Timeout timeout = timer.newTimeout(latch::countDown, i % 200, TimeUnit.MILLISECONDS);
+            if (i % 2 == 1 && timeout.cancel()) {
+                latch.countDown();
+            }
+        }
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(timer.pendingTimeouts()).isZero();
+    }
+
+    @Test
+    void testFailingAction() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        timer.newTimeout(() -> {
+            throw new IllegalStateException("expected by the test");
+        }, 0, TimeUnit.MILLISECONDS);
+        timer.newTimeout(latch::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HybridExecutorTest {
+
+    private final HybridExecutor executor = ExecutorTool.newHybridExecutor();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testRouting() throws Exception {
+        Thread compute = executor.submitCompute(Thread::currentThread).get(10, TimeUnit.SECONDS);
+        Thread marked = executor.submit(new ComputeCallable()).get(10, TimeUnit.SECONDS);
+        Thread blocking = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+        assertThat(compute).isInstanceOf(ForkJoinWorkerThread.class);
+        assertThat(compute.getName()).startsWith("hybrid-compute-");
+        assertThat(marked).isInstanceOf(ForkJoinWorkerThread.class);
+        assertThat(blocking).isNotInstanceOf(ForkJoinWorkerThread.class);
+        assertThat(ThreadTool.isVirtual(blocking)).isEqualTo(ThreadTool.hasVirtualThreads());
+    }
+
+    @Test
+    void testParallelFor() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(10_000);
+        executor.parallelFor(0, visits.length(), visits::incrementAndGet);
+
+        for (int i = 0; i < visits.length(); i++) {
+            assertThat(visits.get(i)).isOne();
+        }
+        executor.parallelFor(5, 5, i -> {
+            throw new AssertionError("empty range");
+        });
+    }
+
+    @Test
+    void testParallelReduce() {
+        long sum = executor.parallelReduce(1, 100_001, 0L, i -> (long) i, Long::sum);
+
+        assertThat(sum).isEqualTo(100_000L * 100_001 / 2);
+        assertThat(executor.parallelReduce(3, 3, 42L, i -> (long) i, Long::sum)).isEqualTo(42L);
+    }
+
+    @Test
+    void testParallelForFailure() {
+        assertThatThrownBy(() -> executor.parallelFor(0, 1000, i -> {
+            if (i == 500) {
+                throw new IllegalStateException("expected by the test");
+            }
+        })).isInstanceOf(IllegalStateException.class).hasStackTraceContaining("expected by the test");
+    }
+
+    private static final class ComputeCallable implements Callable<Thread>, ComputeTask {
+        @Override
+        public Thread call() {
+            return Thread.currentThread();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class KeyedSemaphoreExecutorTest {
+
+    @Test
+    void testLimitPerKey() throws Exception {
+        KeyedSemaphoreExecutor<String> executor = ExecutorTool.newKeyedSemaphoreVirtualExecutor(2);
+        Map<String, AtomicInteger> running = new ConcurrentHashMap<>();
+        Map<String, AtomicInteger> maxRunning = new ConcurrentHashMap<>();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String key = "tenant-" + (i % 3);
+            futures.add(executor.submit(key, () -> {
+                int current = running.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                maxRunning.computeIfAbsent(key, k -> new AtomicInteger()).accumulateAndGet(current, Math::max);
+                Thread.sleep(2);
+                running.get(key).decrementAndGet();
+                return null;
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(maxRunning).hasSize(3);
+        maxRunning.values().forEach(max -> assertThat(max.get()).isBetween(1, 2));
+        assertThat(executor.getActiveKeys()).isZero();
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+    }
+
+    @Test
+    void testGlobalLimit() throws Exception {
+        KeyedSemaphoreExecutor<Integer> executor = ExecutorTool.newKeyedSemaphoreVirtualExecutor(1, 3);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger started = new AtomicInteger();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int key = 0; key < 10; key++) {
+            futures.add(executor.submit(key, () -> {
+                started.incrementAndGet();
+                return latch.await(10, TimeUnit.SECONDS);
+            }));
+        }
+
+        Thread.sleep(100);
+        assertThat(started.get()).isEqualTo(3);
+        assertThat(executor.getActiveKeys()).isEqualTo(10);
+        assertThat(executor.getInFlight(0)).isOne();
+
+        latch.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(started.get()).isEqualTo(10);
+        assertThat(executor.getInFlight(0)).isZero();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testShutdown() throws Exception {
+        KeyedSemaphoreExecutor<String> executor = ExecutorTool.newKeyedSemaphoreVirtualExecutor(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        executor.submit("key", () -> latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            executor.submit("key", completed::incrementAndGet);
+        }
+
+        executor.shutdown();
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> executor.submit("key", completed::incrementAndGet));
+        assertThat(executor.isTerminated()).isFalse();
+
+        latch.countDown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(completed.get()).isEqualTo(5);
+    }
+
+    @Test
+    void testShutdownNow() throws Exception {
+        KeyedSemaphoreExecutor<String> executor = ExecutorTool.newKeyedSemaphoreVirtualExecutor(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        executor.submit("key", () -> {
+            started.countDown();
+            Thread.sleep(10_000);
+            return null;
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 5; i++) {
+            executor.submit("key", () -> {
+            });
+        }
+
+        assertThat(executor.shutdownNow()).hasSize(5);
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testTaskAcceptedDuringShutdownRuns() throws Exception {
+        for (int i = 0; i < 200; i++) {
+            KeyedSemaphoreExecutor<String> executor = ExecutorTool.newKeyedSemaphoreVirtualExecutor(1);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            Thread submitter = new Thread(() -> {
+                try {
+                    start.await();
+                    futures.add(executor.submit("key", () -> {
+                    }));
+                } catch (InterruptedException | RejectedExecutionException e) {
+                    // shut down first
+                }
+            });
+            submitter.start();
+
+            start.countDown();
+            executor.shutdown();
+            submitter.join();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            for (Future<?> future : futures) {
+                assertThat(future.isCancelled()).isFalse();
+                assertThat(future.isDone()).isTrue();
+            }
+        }
+    }
+}
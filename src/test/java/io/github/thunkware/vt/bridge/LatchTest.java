@@ -0,0 +1,33 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatchTest {
+
+    @Test
+    void testAwait() throws Exception {
+        Latch latch = Latch.newLatch(2);
+        Latch released = Latch.newLatch(1);
+        ThreadTool.startVirtualThread(() -> {
+            try {
+                latch.await();
+                released.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(latch.await(20, TimeUnit.MILLISECONDS)).isFalse();
+        latch.countDown();
+        assertThat(latch.getCount()).isOne();
+        latch.countDown();
+        latch.countDown();
+
+        assertThat(latch.getCount()).isZero();
+        assertThat(released.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class LazyTest {
+
+    @Test
+    void testComputedOnce() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        Lazy<String> lazy = Lazy.of(() -> "value-" + computations.incrementAndGet());
+        assertThat(lazy.isInitialized()).isFalse();
+
+        ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < 50; i++) {
+            executor.execute(lazy::get);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(lazy.get()).isEqualTo("value-1");
+        assertThat(computations).hasValue(1);
+        assertThat(lazy.isInitialized()).isTrue();
+    }
+
+    @Test
+    void testNullAndRetry() {
+        AtomicInteger attempts = new AtomicInteger();
+        Lazy<String> lazy = Lazy.of(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("expected by the test");
+            }
+            return null;
+        });
+
+        assertThatIllegalStateException().isThrownBy(lazy::get);
+        assertThat(lazy.isInitialized()).isFalse();
+        assertThat(lazy.get()).isNull();
+        assertThat(lazy.get()).isNull();
+        assertThat(attempts).hasValue(2);
+    }
+
+    @Test
+    void testOnce() {
+        AtomicInteger runs = new AtomicInteger();
+        Once once = Once.of(runs::incrementAndGet);
+
+        once.run();
+        once.run();
+        assertThat(runs).hasValue(1);
+        assertThat(once.isDone()).isTrue();
+    }
+}
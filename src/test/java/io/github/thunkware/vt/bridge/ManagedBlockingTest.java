@@ -0,0 +1,76 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ManagedBlockingTest {
+
+    // one thread: a blocked task leaves no thread for the task that unblocks it, unless the pool compensates
+    private final ForkJoinPool pool = new ForkJoinPool(1);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void testQueue() throws Exception {
+        BlockingQueue<String> queue = ManagedBlocking.queue(new LinkedBlockingQueue<>());
+
+        Future<String> taker = pool.submit(queue::take);
+        pool.submit(() -> {
+            queue.put("item");
+            return null;
+        });
+
+        assertThat(taker.get(10, TimeUnit.SECONDS)).isEqualTo("item");
+        assertThat(queue).isEmpty();
+    }
+
+    @Test
+    void testLock() throws Exception {
+        Lock lock = ManagedBlocking.lock(new ReentrantLock());
+        CountDownLatch release = new CountDownLatch(1);
+        lock.lock();
+
+        Future<?> locker = pool.submit(() -> {
+            lock.lock();
+            lock.unlock();
+        });
+        pool.submit(release::countDown);
+
+        assertThat(release.await(10, TimeUnit.SECONDS)).isTrue();
+        lock.unlock();
+        locker.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testBlock() throws Exception {
+        assertThat(ThreadTool.block(() -> "direct")).isEqualTo("direct");
+        assertThat(pool.submit(() -> ThreadTool.block(() -> "managed")).get(10, TimeUnit.SECONDS))
+                .isEqualTo("managed");
+
+        assertThatExceptionOfType(IOException.class).isThrownBy(() -> ThreadTool.block(() -> {
+            throw new IOException("direct");
+        }));
+        Future<String> failed = pool.submit(() -> ThreadTool.block(() -> {
+            throw new IOException("managed");
+        }));
+        assertThat(failed).failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class)
+                .withRootCauseInstanceOf(IOException.class);
+    }
+}
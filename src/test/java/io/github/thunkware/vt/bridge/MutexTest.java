@@ -0,0 +1,61 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MutexTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testMutualExclusion(boolean avoidMonitors) throws Exception {
+        Mutex mutex = Mutex.newMutex(avoidMonitors);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < 20; i++) {
+            executor.execute(() -> mutex.run(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+            }));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(maxRunning).hasValue(1);
+        // reentrant
+        assertThat(mutex.get(() -> mutex.get(() -> "nested"))).isEqualTo("nested");
+    }
+
+    @Test
+    void testReadWriteMutex() throws Exception {
+        ReadWriteMutex mutex = ReadWriteMutex.newReadWriteMutex();
+        CountDownLatch bothReading = new CountDownLatch(2);
+        ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < 2; i++) {
+            executor.submit(() -> mutex.read().get(() -> {
+                bothReading.countDown();
+                try {
+                    return bothReading.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }));
+        }
+
+        // readers share the mutex
+        assertThat(bothReading.await(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(mutex.write().get(() -> mutex.read().get(() -> "downgrade"))).isEqualTo("downgrade");
+    }
+}
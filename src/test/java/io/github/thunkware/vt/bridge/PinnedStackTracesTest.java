@@ -0,0 +1,62 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PinnedStackTracesTest {
+
+    @Test
+    void testHotStackTraceAfterCapacityReached() {
+        PinnedStackTraces stackTraces = new PinnedStackTraces(4);
+        // startup noise fills the capacity first
+        for (int i = 0; i < 100; i++) {
+            stackTraces.add(stackTrace("noise" + i), 1);
+        }
+        for (int i = 0; i < 50; i++) {
+            stackTraces.add(stackTrace("hot"), 10);
+        }
+
+        List<VirtualThreadTelemetry.PinnedStackTrace> top = stackTraces.top(2);
+
+        assertThat(top).hasSize(2);
+        assertThat(top.get(0).getStackTrace()[0].getMethodName()).isEqualTo("hot");
+        // may overestimate by the count of the replaced stack trace, never underestimate
+        assertThat(top.get(0).getCount()).isGreaterThanOrEqualTo(50);
+        assertThat(top.get(0).getDuration()).isEqualTo(Duration.ofNanos(500));
+        assertThat(stackTraces.top(10)).hasSize(4);
+    }
+
+    @Test
+    void testMostFrequentFirst() {
+        PinnedStackTraces stackTraces = new PinnedStackTraces(8);
+        for (int i = 1; i <= 3; i++) {
+            for (int j = 0; j < i; j++) {
+                stackTraces.add(stackTrace("m" + i), 1);
+            }
+        }
+
+        List<VirtualThreadTelemetry.PinnedStackTrace> top = stackTraces.top(10);
+
+        assertThat(top).extracting(VirtualThreadTelemetry.PinnedStackTrace::getCount).containsExactly(3L, 2L, 1L);
+        assertThat(new PinnedStackTraces(0).top(10)).isEmpty();
+    }
+
+    @Test
+    void testNegativeLimit() {
+        PinnedStackTraces stackTraces = new PinnedStackTraces(4);
+        stackTraces.add(stackTrace("a"), 1);
+
+        assertThat(stackTraces.top(0)).isEmpty();
+        assertThatIllegalArgumentException().isThrownBy(() -> stackTraces.top(-1));
+    }
+
+    private static List<StackTraceElement> stackTrace(String method) {
+        return Collections.singletonList(new StackTraceElement("Pinning", method, null, 1));
+    }
+}
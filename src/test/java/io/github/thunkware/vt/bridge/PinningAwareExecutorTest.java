@@ -0,0 +1,54 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class PinningAwareExecutorTest {
+
+    private final ExecutorService executor = ExecutorTool.newPinningAwareVirtualExecutor(2);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testMonitorHeavyTask() throws Exception {
+        Thread thread = executor.submit(new MonitorHeavyCallable()).get(10, TimeUnit.SECONDS);
+
+        // a virtual thread only where synchronized blocks do not pin
+        assertThat(ThreadTool.isVirtual(thread)).isEqualTo(ThreadTool.hasSafeVirtualThreads());
+        if (ThreadTool.hasVirtualThreads() && !ThreadTool.hasSafeVirtualThreads()) {
+            assertThat(thread.getName()).startsWith("monitor-pool-");
+        }
+    }
+
+    @Test
+    void testOtherTask() throws Exception {
+        Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+        assertThat(ThreadTool.isVirtual(thread)).isEqualTo(ThreadTool.hasVirtualThreads());
+    }
+
+    @Test
+    void testMonitorPoolSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ExecutorTool.newPinningAwareVirtualExecutor(0));
+    }
+
+    private static final class MonitorHeavyCallable implements Callable<Thread>, MonitorHeavyTask {
+        @Override
+        public Thread call() {
+            synchronized (this) {
+                return Thread.currentThread();
+            }
+        }
+    }
+}
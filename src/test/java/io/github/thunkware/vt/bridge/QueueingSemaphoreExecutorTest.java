@@ -0,0 +1,178 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class QueueingSemaphoreExecutorTest {
+
+    @Test
+    void testWaitingTasksDoNotGetThreads() throws Exception {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService delegate = ExecutorTool.newThreadPerTaskExecutor(runnable -> {
+            threadCount.incrementAndGet();
+            return new Thread(runnable);
+        });
+        ExecutorService executor = new QueueingSemaphoreExecutor(delegate, 2);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(executor.submit(() -> latch.await(10, TimeUnit.SECONDS)));
+        }
+        assertThat(threadCount.get()).isEqualTo(2);
+
+        latch.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        assertThat(threadCount.get()).isEqualTo(100);
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+    }
+
+    @Test
+    void testConcurrencyLimit() throws Exception {
+        ExecutorService executor = new QueueingSemaphoreExecutor(ExecutorTool.newVirtualThreadPerTaskExecutor(), 3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            tasks.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(2);
+                running.decrementAndGet();
+                return value;
+            });
+        }
+
+        List<Future<Integer>> futures = executor.invokeAll(tasks);
+        for (int i = 0; i < futures.size(); i++) {
+            assertThat(futures.get(i).get()).isEqualTo(i);
+        }
+        assertThat(maxRunning.get()).isBetween(1, 3);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testShutdownRunsQueuedTasks() throws Exception {
+        ExecutorService executor = new QueueingSemaphoreExecutor(ExecutorTool.newVirtualThreadPerTaskExecutor(), 1);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        executor.submit(() -> latch.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            executor.submit(completed::incrementAndGet);
+        }
+
+        executor.shutdown();
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(executor.isTerminated()).isFalse();
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> executor.submit(completed::incrementAndGet));
+
+        latch.countDown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(completed.get()).isEqualTo(10);
+    }
+
+    @Test
+    void testShutdownNowReturnsQueuedTasks() throws Exception {
+        ExecutorService executor = new QueueingSemaphoreExecutor(ExecutorTool.newVirtualThreadPerTaskExecutor(), 1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+
+        Future<?> running = executor.submit(() -> {
+            started.countDown();
+            Thread.sleep(10_000);
+            return null;
+        });
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            executor.submit(completed::incrementAndGet);
+        }
+
+        List<Runnable> tasks = executor.shutdownNow();
+        assertThat(tasks).hasSize(10);
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(running.isDone()).isTrue();
+        assertThat(completed.get()).isZero();
+    }
+
+    @Test
+    void testRejectsWhenDelegateIsShutDown() {
+        ExecutorService delegate = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        ExecutorService executor = new QueueingSemaphoreExecutor(delegate, 1);
+        delegate.shutdown();
+
+        assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> executor.execute(() -> {
+        }));
+    }
+
+    @Test
+    void testDelegateFailureReturnsPermit() throws Exception {
+        ExecutorService target = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        AtomicBoolean fail = new AtomicBoolean(true);
+        ExecutorService delegate = new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+                if (fail.getAndSet(false)) {
+                    throw new IllegalStateException("delegate failure");
+                }
+                target.execute(command);
+            }
+
+            @Override
+            public void shutdown() {
+                target.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return target.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return target.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return target.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+                return target.awaitTermination(timeout, unit);
+            }
+        };
+        ExecutorService executor = new QueueingSemaphoreExecutor(delegate, 1);
+
+        Future<?> failed = executor.submit(() -> {
+        });
+        assertThat(failed.isCancelled()).isTrue();
+        assertThat(executor.submit(() -> 42).get(10, TimeUnit.SECONDS)).isEqualTo(42);
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+}
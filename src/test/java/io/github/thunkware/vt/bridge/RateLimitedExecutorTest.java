@@ -0,0 +1,80 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+class RateLimitedExecutorTest {
+
+    @Test
+    void testRate() throws Exception {
+        ExecutorService executor = ExecutorTool.newRateLimitedVirtualExecutor(20);
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(System::nanoTime);
+        }
+
+        long start = System.nanoTime();
+        List<Future<Long>> futures = executor.invokeAll(tasks);
+
+        // 10 tasks at 20 per second: the first starts immediately, the last one 9 intervals of 50ms later
+        long lastStart = 0;
+        for (Future<Long> future : futures) {
+            lastStart = Math.max(lastStart, future.get());
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(lastStart - start)).isGreaterThanOrEqualTo(400);
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testBurst() throws Exception {
+        RateLimitedExecutor executor = ExecutorTool.newRateLimitedVirtualExecutor(1, 5);
+        assertThat(executor.availablePermits()).isEqualTo(5);
+
+        AtomicInteger started = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            executor.execute(started::incrementAndGet);
+        }
+
+        Thread.sleep(200);
+        assertThat(started.get()).isEqualTo(5);
+        assertThat(executor.availablePermits()).isZero();
+
+        assertThat(executor.shutdownNow()).hasSize(1);
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testShutdownRunsQueuedTasks() throws Exception {
+        ExecutorService executor = ExecutorTool.newRateLimitedVirtualExecutor(50);
+        AtomicInteger completed = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            executor.execute(completed::incrementAndGet);
+        }
+
+        executor.shutdown();
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> executor.execute(completed::incrementAndGet));
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(completed.get()).isEqualTo(5);
+    }
+
+    @Test
+    void testInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> ExecutorTool.newRateLimitedVirtualExecutor(0));
+        assertThatIllegalArgumentException().isThrownBy(() -> ExecutorTool.newRateLimitedVirtualExecutor(10, 0));
+    }
+}
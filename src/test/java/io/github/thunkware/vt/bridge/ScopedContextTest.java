@@ -0,0 +1,108 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ScopedContextTest {
+
+    private static final ScopedContext<String> TENANT = ScopedContext.newInstance();
+    private static final ScopedContext<Integer> REQUEST = ScopedContext.newInstance();
+
+    @Test
+    void testBinding() throws Exception {
+        assertThat(TENANT.isBound()).isFalse();
+        assertThat(TENANT.orElse("none")).isEqualTo("none");
+        assertThatExceptionOfType(NoSuchElementException.class).isThrownBy(TENANT::get);
+
+        String result = ScopedContext.where(TENANT, "acme").where(REQUEST, 1).call(() -> {
+            assertThat(TENANT.isBound()).isTrue();
+            assertThat(REQUEST.get()).isEqualTo(1);
+
+            ScopedContext.where(TENANT, "nested").run(() -> {
+                assertThat(TENANT.get()).isEqualTo("nested");
+                assertThat(REQUEST.get()).isEqualTo(1);
+            });
+            return TENANT.get();
+        });
+
+        assertThat(result).isEqualTo("acme");
+        assertThat(TENANT.isBound()).isFalse();
+        assertThat(REQUEST.isBound()).isFalse();
+    }
+
+    @Test
+    void testUnbindOnException() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() ->
+                ScopedContext.where(TENANT, "acme").call(() -> {
+                    throw new IllegalArgumentException();
+                }));
+        assertThat(TENANT.isBound()).isFalse();
+    }
+
+    @Test
+    void testStartVirtualThread() throws Exception {
+        AtomicReference<String> seen = new AtomicReference<>();
+        Thread thread = ScopedContext.where(TENANT, "acme")
+                .get(() -> ThreadTool.startVirtualThread(() -> seen.set(TENANT.orElse("none"))));
+        thread.join();
+        assertThat(seen.get()).isEqualTo("acme");
+
+        Thread unbound = ThreadTool.startVirtualThread(() -> seen.set(TENANT.orElse("none")));
+        unbound.join();
+        assertThat(seen.get()).isEqualTo("none");
+    }
+
+    @Test
+    void testExecutors() throws Exception {
+        ExecutorService virtual = ExecutorTool.newVirtualThreadPerTaskExecutor();
+        ExecutorService semaphore = ExecutorTool.newSemaphoreVirtualExecutor(1);
+        KeyedSemaphoreExecutor<String> keyed = ExecutorTool.newKeyedSemaphoreVirtualExecutor(1);
+
+        Future<String> fromVirtual = ScopedContext.where(TENANT, "virtual").call(() -> virtual.submit(TENANT::get));
+        Future<String> fromSemaphore = ScopedContext.where(TENANT, "semaphore").call(() -> semaphore.submit(TENANT::get));
+        Future<String> fromKeyed = ScopedContext.where(TENANT, "keyed").call(() -> keyed.submit("key", TENANT::get));
+        Future<String> unbound = semaphore.submit(() -> TENANT.orElse("none"));
+
+        assertThat(fromVirtual.get(10, TimeUnit.SECONDS)).isEqualTo("virtual");
+        assertThat(fromSemaphore.get(10, TimeUnit.SECONDS)).isEqualTo("semaphore");
+        assertThat(fromKeyed.get(10, TimeUnit.SECONDS)).isEqualTo("keyed");
+        assertThat(unbound.get(10, TimeUnit.SECONDS)).isEqualTo("none");
+
+        virtual.shutdown();
+        semaphore.shutdown();
+        keyed.shutdown();
+    }
+
+    @Test
+    void testStructuredScope() throws Exception {
+        ScopedContext.where(TENANT, "acme").call(() -> {
+            try (StructuredScope<String> scope = new StructuredScope<>()) {
+                StructuredScope.Subtask<String> subtask = scope.fork(TENANT::get);
+                scope.join();
+                assertThat(subtask.get()).isEqualTo("acme");
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void testWrap() throws Exception {
+        Runnable task = () -> {
+        };
+        assertThat(ScopedContext.wrap(task)).isSameAs(task);
+
+        AtomicReference<String> seen = new AtomicReference<>();
+        Runnable wrapped = ScopedContext.where(TENANT, "acme").get(() -> ScopedContext.wrap(() -> seen.set(TENANT.get())));
+        wrapped.run();
+        assertThat(seen.get()).isEqualTo("acme");
+        assertThat(TENANT.isBound()).isFalse();
+    }
+}
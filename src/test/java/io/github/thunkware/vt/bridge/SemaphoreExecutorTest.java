@@ -0,0 +1,153 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SemaphoreExecutorTest {
+
+    @Test
+    void testExecutionTimeout() throws Exception {
+        SemaphoreExecutor executor = ExecutorTool.newSemaphoreVirtualExecutor(1, null, Duration.ofMillis(50));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        Future<?> future = executor.submit(() -> {
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the permit is back once the task ended
+        assertThat(executor.submit(() -> "done").get(10, TimeUnit.SECONDS)).isEqualTo("done");
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testTaskExecutionTimeout() throws Exception {
+        SemaphoreExecutor executor = new SemaphoreExecutor(ExecutorTool.newVirtualThreadPerTaskExecutor(), 2);
+        Future<Boolean> fast = executor.submit(() -> true, Duration.ofSeconds(10));
+        Future<Boolean> slow = executor.submit(() -> {
+            Thread.sleep(10_000);
+            return true;
+        }, Duration.ofMillis(50));
+
+        assertThat(fast.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> slow.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testPermitHeldUntilTaskEnds() throws Exception {
+        Semaphore semaphore = new Semaphore(1);
+        SemaphoreExecutor executor = new SemaphoreExecutor(ExecutorTool.newVirtualThreadPerTaskExecutor(), semaphore,
+                null, Duration.ofMillis(20), null);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> future = executor.submit(() -> {
+            // ignores the interrupt
+            while (true) {
+                try {
+                    if (release.await(10, TimeUnit.SECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    // keep running
+                }
+            }
+        });
+
+        assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(semaphore.availablePermits()).isZero();
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(semaphore.availablePermits()).isOne();
+    }
+
+    @Test
+    void testExecutionTimeoutClearsOnlyItsInterrupt() throws Exception {
+        BlockingQueue<Boolean> interruptedAfterTask = new LinkedBlockingQueue<>();
+        ThreadFactory factory = task -> new Thread(() -> {
+            task.run();
+            interruptedAfterTask.add(Thread.currentThread().isInterrupted());
+        });
+        SemaphoreExecutor executor = new SemaphoreExecutor(ExecutorTool.newThreadPerTaskExecutor(factory),
+                new Semaphore(1), null, Duration.ofMillis(20), null);
+
+        Future<?> timedOut = executor.submit(() -> spin(TimeUnit.MILLISECONDS.toNanos(200)));
+        assertThatThrownBy(() -> timedOut.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interruptedAfterTask.poll(10, TimeUnit.SECONDS)).isFalse();
+
+        Future<?> interrupted = executor.submit(() -> {
+            // e.g. shutdownNow, before the execution timeout elapses
+            Thread.currentThread().interrupt();
+            spin(TimeUnit.MILLISECONDS.toNanos(200));
+        });
+        assertThatThrownBy(() -> interrupted.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(interruptedAfterTask.poll(10, TimeUnit.SECONDS)).isTrue();
+
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testAcquireTimeoutWithExecutionTimeout() throws Exception {
+        SemaphoreExecutor executor = ExecutorTool.newSemaphoreVirtualExecutor(1, Duration.ofMillis(50),
+                Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Boolean> holding = executor.submit(() -> release.await(10, TimeUnit.SECONDS));
+        Future<Boolean> waiting = executor.submit(() -> true);
+
+        assertThatThrownBy(() -> waiting.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(TimeoutException.class);
+
+        release.countDown();
+        assertThat(holding.get(10, TimeUnit.SECONDS)).isTrue();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testInvokeAllExecutionTimeout() throws Exception {
+        ExecutorService executor = ExecutorTool.newSemaphoreVirtualExecutor(1, null, Duration.ofMillis(50));
+        List<Future<Boolean>> futures = executor.invokeAll(Collections.singletonList(() -> {
+            Thread.sleep(10_000);
+            return true;
+        }));
+
+        assertThatThrownBy(() -> futures.get(0).get()).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void spin(long nanos) {
+        long end = System.nanoTime() + nanos;
+        while (System.nanoTime() - end < 0) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StreamToolTest {
+
+    @Test
+    void testOrderAndConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Integer> results = StreamTool.mapConcurrent(IntStream.range(0, 40).boxed(), 4, i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                // later elements tend to complete first
+                Thread.sleep(10 - i % 10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            return i * 2;
+        }).collect(Collectors.toList());
+
+        assertThat(results).isEqualTo(IntStream.range(0, 40).map(i -> i * 2).boxed().collect(Collectors.toList()));
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void testLazySource() {
+        AtomicInteger pulled = new AtomicInteger();
+        Stream<Integer> source = IntStream.range(0, 1000).boxed().peek(i -> pulled.incrementAndGet());
+
+        Iterator<Integer> results = StreamTool.mapConcurrent(source, 3, i -> i).iterator();
+
+        assertThat(results.next()).isZero();
+        assertThat(pulled.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void testFailure() {
+        IllegalStateException failure = new IllegalStateException("failed");
+        Stream<Integer> results = StreamTool.mapConcurrent(Stream.of(1, 2, 3), 2, i -> {
+            if (i == 2) {
+                throw failure;
+            }
+            return i;
+        });
+
+        assertThatThrownBy(() -> results.collect(Collectors.toList())).isSameAs(failure);
+        assertThatIllegalArgumentException().isThrownBy(() -> StreamTool.mapConcurrent(Stream.of(1), 0, i -> i));
+    }
+
+    @Test
+    void testCloseInterruptsMappings() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicInteger sourceClosed = new AtomicInteger();
+        Stream<Integer> source = Stream.of(0, 1).onClose(sourceClosed::incrementAndGet);
+
+        Optional<Integer> first;
+        try (Stream<Integer> results = StreamTool.mapConcurrent(source, 2, i -> {
+            if (i == 1) {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+            return i;
+        })) {
+            first = results.findFirst();
+            // a mapping cancelled before it started is never run, so never interrupted
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(first).contains(0);
+        assertThat(interrupted.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(sourceClosed.get()).isOne();
+    }
+
+    @Test
+    void testScopedContext() {
+        ScopedContext<String> tenant = ScopedContext.newInstance();
+
+        List<String> results = ScopedContext.where(tenant, "acme").get(() ->
+                StreamTool.mapConcurrent(Stream.of(1, 2), 2, i -> tenant.get() + i).collect(Collectors.toList()));
+
+        assertThat(results).containsExactly("acme1", "acme2");
+    }
+}
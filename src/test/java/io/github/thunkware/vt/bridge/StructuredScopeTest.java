@@ -0,0 +1,147 @@
+package io.github.thunkware.vt.bridge;
+
+import io.github.thunkware.vt.bridge.StructuredScope.Subtask;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+class StructuredScopeTest {
+
+    @Test
+    void testJoinAll() throws Exception {
+        try (StructuredScope<String> scope = new StructuredScope<>()) {
+            Subtask<String> first = scope.fork(() -> "first");
+            Subtask<String> second = scope.fork(() -> {
+                Thread.sleep(50);
+                return "second";
+            });
+            scope.join();
+
+            assertThat(first.state()).isEqualTo(Subtask.State.SUCCESS);
+            assertThat(first.get()).isEqualTo("first");
+            assertThat(second.get()).isEqualTo("second");
+        }
+    }
+
+    @Test
+    void testShutdownOnFailure() throws Exception {
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        try (StructuredScope.ShutdownOnFailure scope = new StructuredScope.ShutdownOnFailure()) {
+            Subtask<Object> slow = scope.fork(() -> {
+                slowStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw e;
+                }
+                return "slow";
+            });
+            scope.fork(() -> {
+                // fail only once the slow subtask runs, else the shutdown may come before it starts
+                slowStarted.await(10, TimeUnit.SECONDS);
+                throw new IllegalArgumentException("failed");
+            });
+
+            scope.join();
+            assertThatExceptionOfType(ExecutionException.class)
+                    .isThrownBy(scope::throwIfFailed)
+                    .withCauseInstanceOf(IllegalArgumentException.class);
+            assertThat(scope.exception()).containsInstanceOf(IllegalArgumentException.class);
+            assertThat(scope.isShutdown()).isTrue();
+            assertThat(slow.state()).isEqualTo(Subtask.State.UNAVAILABLE);
+        }
+
+        // close waits for the slow subtask, which was interrupted by the shutdown
+        assertThat(interrupted.get()).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+    }
+
+    @Test
+    void testShutdownOnSuccess() throws Exception {
+        try (StructuredScope.ShutdownOnSuccess<String> scope = new StructuredScope.ShutdownOnSuccess<>()) {
+            scope.fork(() -> {
+                Thread.sleep(10_000);
+                return "slow";
+            });
+            scope.fork(() -> {
+                throw new IllegalArgumentException("failed");
+            });
+            scope.fork(() -> "fast");
+
+            assertThat(scope.join().result()).isEqualTo("fast");
+        }
+    }
+
+    @Test
+    void testShutdownOnSuccessAllFailed() throws Exception {
+        try (StructuredScope.ShutdownOnSuccess<String> scope = new StructuredScope.ShutdownOnSuccess<>()) {
+            scope.fork(() -> {
+                throw new IllegalArgumentException("failed");
+            });
+            scope.join();
+
+            assertThatExceptionOfType(ExecutionException.class)
+                    .isThrownBy(scope::result)
+                    .withCauseInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void testJoinUntil() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        try (StructuredScope.ShutdownOnFailure scope = new StructuredScope.ShutdownOnFailure()) {
+            Subtask<Object> subtask = scope.fork(() -> latch.await(10, TimeUnit.SECONDS));
+
+            assertThatExceptionOfType(TimeoutException.class)
+                    .isThrownBy(() -> scope.joinUntil(Instant.now().plusMillis(50)));
+            assertThat(scope.isShutdown()).isTrue();
+            assertThat(subtask.state()).isEqualTo(Subtask.State.UNAVAILABLE);
+        }
+    }
+
+    @Test
+    void testForkAfterShutdown() throws Exception {
+        try (StructuredScope<String> scope = new StructuredScope<>()) {
+            scope.shutdown();
+            Subtask<String> subtask = scope.fork(() -> "never");
+            scope.join();
+
+            assertThat(subtask.state()).isEqualTo(Subtask.State.UNAVAILABLE);
+            assertThatIllegalStateException().isThrownBy(subtask::get);
+        }
+    }
+
+    @Test
+    void testCloseWithoutJoin() {
+        StructuredScope<String> scope = new StructuredScope<>();
+        scope.fork(() -> "value");
+
+        assertThatIllegalStateException().isThrownBy(scope::close);
+        assertThatIllegalStateException().isThrownBy(() -> scope.fork(() -> "closed"));
+    }
+
+    @Test
+    void testThreadFactoryFailure() throws Exception {
+        IllegalStateException failure = new IllegalStateException("expected by the test");
+        try (StructuredScope<String> scope = new StructuredScope<>(null, task -> {
+            throw failure;
+        })) {
+            assertThatIllegalStateException().isThrownBy(() -> scope.fork(() -> "never")).isSameAs(failure);
+            // not waiting for the subtask that did not start
+            scope.join();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskBatchTest {
+
+    private final ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void testSemaphoreExecutor() throws Exception {
+        SemaphoreExecutor semaphoreExecutor = new SemaphoreExecutor(executor, 2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<Thread> threads = Collections.synchronizedSet(new HashSet<>());
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            tasks.add(() -> {
+                threads.add(Thread.currentThread());
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(1);
+                running.decrementAndGet();
+                return value;
+            });
+        }
+
+        TaskBatch<Integer> batch = ExecutorTool.submitAll(semaphoreExecutor, tasks);
+
+        List<Integer> results = batch.get(10, TimeUnit.SECONDS);
+        assertThat(results).hasSize(50);
+        for (int i = 0; i < 50; i++) {
+            assertThat(results.get(i)).isEqualTo(i);
+        }
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(2);
+        // workers that run several tasks each, not a thread per task
+        assertThat(threads.size()).isLessThan(50);
+        assertThat(batch.isDone()).isTrue();
+    }
+
+    @Test
+    void testCompletionOrder() throws Exception {
+        CountDownLatch releaseSlow = new CountDownLatch(1);
+        List<Callable<String>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            releaseSlow.await();
+            return "slow";
+        });
+        tasks.add(() -> "fast");
+
+        TaskBatch<String> batch = ExecutorTool.submitAll(executor, tasks);
+
+        Future<String> first = batch.take();
+        assertThat(first).isSameAs(batch.getFutures().get(1));
+        assertThat(first.get()).isEqualTo("fast");
+        assertThat(batch.poll(10, TimeUnit.MILLISECONDS)).isNull();
+
+        releaseSlow.countDown();
+        assertThat(batch.take().get()).isEqualTo("slow");
+        assertThat(batch.take()).isNull();
+        assertThat(batch.get()).containsExactly("slow", "fast");
+    }
+
+    @Test
+    void testFirstFailureCancelsTheOthers() throws Exception {
+        IllegalStateException failure = new IllegalStateException("failed");
+        CountDownLatch slowStarted = new CountDownLatch(1);
+        List<Callable<String>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            slowStarted.countDown();
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            return "slow";
+        });
+        tasks.add(() -> {
+            slowStarted.await();
+            throw failure;
+        });
+
+        TaskBatch<String> batch = ExecutorTool.submitAll(executor, tasks);
+
+        assertThatThrownBy(() -> batch.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCause(failure);
+        assertThat(batch.getFutures().get(0).isCancelled()).isTrue();
+        assertThat(batch.isCancelled()).isFalse();
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        List<Callable<String>> tasks = new ArrayList<>();
+        tasks.add(() -> {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            return "slow";
+        });
+
+        TaskBatch<String> batch = ExecutorTool.submitAll(new SemaphoreExecutor(executor, 1), tasks);
+
+        assertThat(batch.cancel(true)).isTrue();
+        assertThat(batch.isCancelled()).isTrue();
+        assertThat(batch.take().isCancelled()).isTrue();
+        assertThatThrownBy(batch::get).isInstanceOf(CancellationException.class);
+    }
+
+    @Test
+    void testEmpty() throws Exception {
+        TaskBatch<String> batch = ExecutorTool.submitAll(executor, Collections.emptyList());
+
+        assertThat(batch.isDone()).isTrue();
+        assertThat(batch.take()).isNull();
+        assertThat(batch.get()).isEmpty();
+    }
+
+    @Test
+    void testRejectionCancelsTheBatch() {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> {
+                latch.await(10, TimeUnit.SECONDS);
+                return 1;
+            });
+        }
+        AtomicInteger accepted = new AtomicInteger();
+        Executor rejecting = command -> {
+            if (accepted.incrementAndGet() > 2) {
+                throw new RejectedExecutionException("full");
+            }
+            executor.execute(command);
+        };
+
+        TaskBatch<Integer> batch = new TaskBatch<>(tasks, UnaryOperator.identity());
+        assertThatThrownBy(() -> batch.start(rejecting)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(batch.isCancelled()).isTrue();
+        assertThat(batch.isDone()).isTrue();
+        assertThat(batch.getFutures()).allMatch(Future::isCancelled);
+    }
+
+    @Test
+    void testRejectedWorkerCancelsTheBatch() {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> 1);
+        }
+        Executor rejecting = command -> {
+            throw new RejectedExecutionException("full");
+        };
+
+        TaskBatch<Integer> batch = new TaskBatch<>(tasks, UnaryOperator.identity());
+        assertThatThrownBy(() -> batch.start(rejecting, () -> 2)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(batch.isDone()).isTrue();
+        assertThat(batch.getFutures()).allMatch(Future::isCancelled);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskInventoryTest {
+
+    @Test
+    void testRunningTasks() throws Exception {
+        ExecutorStats stats = new ExecutorStats();
+        TaskInventory inventory = new TaskInventory(stats);
+        ExecutorService executor = ExecutorTool.newSemaphoreVirtualExecutor(2, inventory);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                awaitUninterruptibly(release);
+            });
+        }
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // the third task waits for a permit and is not running
+        List<TaskInventory.RunningTask> tasks = inventory.getRunningTasks(true);
+        assertThat(tasks).hasSize(2);
+        assertThat(tasks.get(0).getAge()).isGreaterThanOrEqualTo(tasks.get(1).getAge());
+        assertThat(tasks.get(0).getStartTime()).isBeforeOrEqualTo(tasks.get(1).getStartTime());
+        assertThat(tasks.get(0).getStackTrace())
+                .anyMatch(element -> element.getMethodName().equals("awaitUninterruptibly"));
+        assertThat(inventory.getRunningTasks().get(0).getStackTrace()).isEmpty();
+        assertThat(stats.getStarted()).isEqualTo(2);
+
+        release.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(inventory.getRunningCount()).isZero();
+        assertThat(stats.getCompleted()).isEqualTo(3);
+    }
+
+    @Test
+    void testWatchdog() throws Exception {
+        TaskInventory inventory = new TaskInventory();
+        ExecutorService executor = ExecutorTool.newSemaphoreVirtualExecutor(2, inventory);
+        BlockingQueue<TaskInventory.RunningTask> stuck = new LinkedBlockingQueue<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        TaskInventory.Watchdog watchdog = inventory.watch(Duration.ofMillis(50), Duration.ofMillis(10), stuck::add);
+        try {
+            executor.execute(() -> awaitUninterruptibly(release));
+            executor.execute(() -> { });
+
+            TaskInventory.RunningTask task = stuck.poll(10, TimeUnit.SECONDS);
+            assertThat(task).isNotNull();
+            assertThat(task.getAge()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+            assertThat(task.getStackTrace()).isNotEmpty();
+
+            // reported once
+            assertThat(stuck.poll(100, TimeUnit.MILLISECONDS)).isNull();
+        } finally {
+            watchdog.close();
+            release.countDown();
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
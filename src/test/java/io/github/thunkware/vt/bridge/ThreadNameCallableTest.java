@@ -48,4 +48,19 @@ public class ThreadNameCallableTest {
         assertThatExceptionOfType(IllegalArgumentException.class)
                 .isThrownBy(() -> new ThreadNameCallable<Void>(null, null));
     }
+
+    @Test
+    public void testTagWithoutRenaming() throws Exception {
+        Thread thread = Thread.currentThread();
+        String originalThreadName = thread.getName();
+
+        String tag = new ThreadNameCallable<>("request-42", () -> {
+            assertThat(Thread.currentThread().getName()).isEqualTo(originalThreadName);
+            return TaskTag.current();
+        }, false).call();
+        assertThat(tag).isEqualTo("request-42");
+
+        assertThat(thread.getName()).isEqualTo(originalThreadName);
+        assertThat(TaskTag.current()).isNull();
+    }
 }
@@ -44,4 +44,19 @@ public class ThreadNameRunnableTest {
         assertThatExceptionOfType(IllegalArgumentException.class)
                 .isThrownBy(() -> new ThreadNameRunnable(null, null));
     }
+
+    @Test
+    public void testTagWithoutRenaming() {
+        Thread thread = Thread.currentThread();
+        String originalThreadName = thread.getName();
+
+        new ThreadNameRunnable("request-42", () -> {
+            assertThat(Thread.currentThread().getName()).isEqualTo(originalThreadName);
+            assertThat(TaskTag.current()).isEqualTo("request-42");
+            assertThat(TaskTag.of(thread)).isEqualTo("request-42");
+        }, false).run();
+
+        assertThat(thread.getName()).isEqualTo(originalThreadName);
+        assertThat(TaskTag.current()).isNull();
+    }
 }
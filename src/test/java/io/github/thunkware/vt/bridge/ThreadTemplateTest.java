@@ -0,0 +1,120 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.Thread.UncaughtExceptionHandler;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThreadTemplateTest {
+
+    private static final Runnable TASK = () -> {
+    };
+
+    @Test
+    void testSequence() {
+        UncaughtExceptionHandler handler = (t, e) -> {
+        };
+        ThreadTemplate template = ThreadTemplate.of(ThreadTool.ofPlatform()
+                .name("worker-", 8)
+                .uncaughtExceptionHandler(handler)
+                .factory());
+
+        for (int i = 8; i < 13; i++) {
+            Thread thread = apply(template);
+            assertThat(thread.getName()).isEqualTo("worker-" + i);
+            assertThat(thread.getUncaughtExceptionHandler()).isSameAs(handler);
+        }
+        assertThat(template.isSampling()).isFalse();
+    }
+
+    @Test
+    void testCustomFactoryCalledForEveryThread() {
+        AtomicInteger created = new AtomicInteger();
+        UncaughtExceptionHandler handler = (t, e) -> {
+        };
+        ClassLoader classLoader = new URLClassLoader(new URL[0]);
+        ThreadTemplate template = ThreadTemplate.of(runnable -> {
+            Thread thread = new Thread(runnable, "worker-" + (8 + created.getAndIncrement()));
+            thread.setUncaughtExceptionHandler(handler);
+            thread.setContextClassLoader(classLoader);
+            return thread;
+        });
+
+        for (int i = 8; i < 13; i++) {
+            Thread thread = apply(template);
+            assertThat(thread.getName()).isEqualTo("worker-" + i);
+            assertThat(thread.getUncaughtExceptionHandler()).isSameAs(handler);
+            assertThat(thread.getContextClassLoader()).isSameAs(classLoader);
+        }
+        // the factory may have side effects, it is not replaced by the template
+        assertThat(created).hasValue(5);
+        assertThat(template.isSampling()).isTrue();
+    }
+
+    @Test
+    void testDefaultThreadFactory() {
+        ThreadFactory factory = Executors.defaultThreadFactory();
+        String prefix = factory.newThread(TASK).getName();
+        prefix = prefix.substring(0, prefix.length() - 1);
+        ThreadTemplate template = ThreadTemplate.of(factory);
+
+        for (int i = 2; i < 5; i++) {
+            assertThat(apply(template).getName()).isEqualTo(prefix + i);
+        }
+        assertThat(template.isSampling()).isFalse();
+    }
+
+    @Test
+    void testFixedName() {
+        ThreadTemplate template = ThreadTemplate.of(ThreadTool.ofPlatform().name("worker").factory());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(apply(template).getName()).isEqualTo("worker");
+        }
+        assertThat(template.isSampling()).isFalse();
+    }
+
+    @Test
+    void testUnpredictableNames() {
+        AtomicInteger created = new AtomicInteger();
+        ThreadTemplate template = ThreadTemplate.of(runnable -> {
+            int count = created.getAndIncrement();
+            return new Thread(runnable, "worker-" + count * 3);
+        });
+
+        assertThat(apply(template).getName()).isEqualTo("worker-0");
+        assertThat(apply(template).getName()).isEqualTo("worker-3");
+        assertThat(apply(template).getName()).isEqualTo("worker-6");
+        assertThat(apply(template).getName()).isEqualTo("worker-9");
+        assertThat(template.isSampling()).isTrue();
+    }
+
+    @Test
+    void testHandlerPerThread() {
+        ThreadTemplate template = ThreadTemplate.of(runnable -> {
+            Thread thread = new Thread(runnable, "worker");
+            thread.setUncaughtExceptionHandler(new UncaughtExceptionHandler() {
+                @Override
+                public void uncaughtException(Thread t, Throwable e) {
+                }
+            });
+            return thread;
+        });
+
+        apply(template);
+        apply(template);
+        assertThat(template.isSampling()).isTrue();
+    }
+
+    private static Thread apply(ThreadTemplate template) {
+        Thread thread = new Thread(TASK);
+        template.apply(thread, TASK);
+        return thread;
+    }
+}
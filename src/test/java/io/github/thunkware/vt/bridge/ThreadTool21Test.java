@@ -5,6 +5,8 @@ import org.apache.commons.lang3.SystemUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -87,4 +89,45 @@ class ThreadTool21Test {
 
         assertThat(ThreadTool.hasSafeVirtualThreads()).isTrue();
     }
+
+    @Test
+    void testVirtualThreadTelemetry() throws Exception {
+        VirtualThreadTelemetry.Options options = new VirtualThreadTelemetry.Options()
+                .pinnedThreshold(Duration.ofMillis(1))
+                .threadLifecycle(true);
+        try (VirtualThreadTelemetry telemetry = ThreadTool.startVirtualThreadTelemetry(options)) {
+            assertThat(telemetry.isActive()).isTrue();
+
+            Object monitor = new Object();
+            Runnable pinning = () -> {
+                synchronized (monitor) {
+                    try {
+                        Thread.sleep(20);
+                    } catch (InterruptedException e) {
+                    }
+                }
+            };
+
+            // events arrive with the periodic flush of the stream, about once per second
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (telemetry.getStartedCount() == 0 && System.nanoTime() < deadline) {
+                ThreadTool.startVirtualThread(pinning).join();
+                Thread.sleep(100);
+            }
+            assertThat(telemetry.getStartedCount()).isPositive();
+
+            if (!ThreadTool.hasSafeVirtualThreads()) {
+                while (telemetry.getPinnedCount() == 0 && System.nanoTime() < deadline) {
+                    ThreadTool.startVirtualThread(pinning).join();
+                    Thread.sleep(100);
+                }
+                assertThat(telemetry.getPinnedCount()).isPositive();
+                assertThat(telemetry.getPinnedDuration()).isPositive();
+
+                List<VirtualThreadTelemetry.PinnedStackTrace> stackTraces = telemetry.getTopPinnedStackTraces(5);
+                assertThat(stackTraces).isNotEmpty();
+                assertThat(stackTraces.get(0).getStackTrace()).isNotEmpty();
+            }
+        }
+    }
 }
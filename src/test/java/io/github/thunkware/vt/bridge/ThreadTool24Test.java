@@ -0,0 +1,29 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static io.github.thunkware.vt.bridge.ThreadProvider.getThreadProvider;
+import static org.apache.commons.lang3.JavaVersion.JAVA_23;
+import static org.apache.commons.lang3.SystemUtils.isJavaVersionAtMost;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class ThreadTool24Test {
+
+    @BeforeEach
+    void setUp() {
+        assumeThat(isJavaVersionAtMost(JAVA_23)).isFalse();
+    }
+
+    @Test
+    void testProvider() throws Exception {
+        assertThat(getThreadProvider().getClass().getSimpleName()).isEqualTo("ThreadProvider24");
+        assertThat(ThreadTool.hasSafeVirtualThreads()).isTrue();
+
+        // the java21 classes recompiled for Java 24, not the ones of versions/21
+        Class<?> provider21 = Class.forName("io.github.thunkware.vt.bridge.ThreadProvider21");
+        assertThat(provider21.getProtectionDomain().getCodeSource().getLocation().getPath())
+                .contains("versions/24");
+    }
+}
@@ -5,14 +5,23 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.github.thunkware.vt.bridge.ThreadFeature.INHERIT_INHERITABLE_THREAD_LOCALS;
+import static io.github.thunkware.vt.bridge.ThreadFeature.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR;
 import static io.github.thunkware.vt.bridge.ThreadFeature.OF_VIRTUAL;
 import static io.github.thunkware.vt.bridge.ThreadFeature.START_VIRTUAL_THREAD;
 import static io.github.thunkware.vt.bridge.ThreadFeature.UNSTARTED_VIRTUAL_THREAD;
+import static io.github.thunkware.vt.bridge.ThreadFeature.VIRTUAL_THREAD_TELEMETRY;
 import static io.github.thunkware.vt.bridge.ThreadProvider.getThreadProvider;
 import static org.apache.commons.lang3.JavaVersion.JAVA_20;
 import static org.apache.commons.lang3.SystemUtils.isJavaVersionAtMost;
@@ -111,4 +120,80 @@ class ThreadTool8Test {
         OfPlatform ofPlatform = ThreadTool.ofPlatform();
         assertThatExceptionOfType(IncompatibilityException.class).isThrownBy(() -> ofPlatform.inheritInheritableThreadLocals(false));
     }
+
+    @Test
+    void testVirtualThreadTelemetry() {
+        try (VirtualThreadTelemetry telemetry = ThreadTool.startVirtualThreadTelemetry()) {
+            assertThat(telemetry.isActive()).isFalse();
+            assertThat(telemetry.getPinnedCount()).isZero();
+            assertThat(telemetry.getTopPinnedStackTraces(10)).isEmpty();
+        }
+    }
+
+    @Test
+    void testConfigVirtualThreadTelemetry() {
+        getThreadProvider().getConfig().throwExceptionWhen(VIRTUAL_THREAD_TELEMETRY);
+        assertThatExceptionOfType(IncompatibilityException.class).isThrownBy(() -> ThreadTool.startVirtualThreadTelemetry());
+    }
+
+    @Test
+    void testBoundedPlatformPoolKeepsThreadsJoinable() throws Exception {
+        getThreadProvider().getConfig()
+                .setPlatformPoolConfig(new PlatformPoolConfig().size(1))
+                .setCompatibilityPolicy(START_VIRTUAL_THREAD, CompatibilityPolicy.BOUNDED_PLATFORM_POOL)
+                .setCompatibilityPolicy(UNSTARTED_VIRTUAL_THREAD, CompatibilityPolicy.BOUNDED_PLATFORM_POOL);
+
+        AtomicInteger completed = new AtomicInteger();
+        Runnable task = () -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            completed.incrementAndGet();
+        };
+        Thread started = ThreadTool.startVirtualThread(task);
+        Thread unstarted = ThreadTool.unstartedVirtualThread(task);
+        unstarted.start();
+        assertThat(started.isAlive()).isTrue();
+
+        started.join();
+        unstarted.join();
+        assertThat(completed).hasValue(2);
+    }
+
+    @Test
+    void testWorkStealingPool() throws Exception {
+        getThreadProvider().getConfig()
+                .setCompatibilityPolicy(NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR, CompatibilityPolicy.WORK_STEALING_POOL);
+        ExecutorService executor = ExecutorTool.newVirtualThreadPerTaskExecutor();
+
+        BlockingQueue<String> queue = ManagedBlocking.queue(new LinkedBlockingQueue<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        Set<Thread> carriers = ConcurrentHashMap.newKeySet();
+        // more blocked consumers than CPUs, the pool compensates while they block
+        int consumers = Runtime.getRuntime().availableProcessors() + 2;
+        CountDownLatch consumed = new CountDownLatch(consumers);
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(() -> {
+                carriers.add(Thread.currentThread());
+                try {
+                    queue.take();
+                    consumed.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        for (int i = 0; i < consumers; i++) {
+            executor.execute(() -> queue.add("item"));
+        }
+        executor.execute(latch::countDown);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(consumed.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(carriers).allMatch(ForkJoinWorkerThread.class::isInstance);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
 }
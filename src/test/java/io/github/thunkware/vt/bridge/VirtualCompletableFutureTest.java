@@ -0,0 +1,66 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class VirtualCompletableFutureTest {
+
+    @Test
+    void testSupplyAsync() throws Exception {
+        Thread thread = ExecutorTool.supplyAsync(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+        assertThat(ThreadTool.isVirtual(thread)).isEqualTo(ThreadTool.hasVirtualThreads());
+        assertThat(thread).isNotInstanceOf(ForkJoinWorkerThread.class);
+    }
+
+    @Test
+    void testChainedAsyncStages() throws Exception {
+        // the tests run on Java 9+, where the dependent stages keep the default executor
+        Thread thread = ExecutorTool.runAsync(() -> { })
+                .thenApplyAsync(ignored -> Thread.currentThread())
+                .get(10, TimeUnit.SECONDS);
+
+        assertThat(ThreadTool.isVirtual(thread)).isEqualTo(ThreadTool.hasVirtualThreads());
+        assertThat(thread).isNotInstanceOf(ForkJoinWorkerThread.class);
+    }
+
+    @Test
+    void testSupplyAsyncWhenVirtualThreadExecutorsThrow() throws Exception {
+        // the bounded executor of the async stages is not subject to the policy, even when it is first used here
+        ThreadTool.getConfig().throwExceptionWhen(ThreadFeature.NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR);
+        try {
+            assertThat(ExecutorTool.supplyAsync(() -> "done").get(10, TimeUnit.SECONDS)).isEqualTo("done");
+        } finally {
+            ThreadTool.getConfig().reset();
+        }
+    }
+
+    @Test
+    void testFailure() {
+        IllegalStateException failure = new IllegalStateException("failed");
+        CompletableFuture<Object> future = ExecutorTool.supplyAsync(() -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(future::join).isInstanceOf(CompletionException.class).hasCause(failure);
+    }
+
+    @Test
+    void testToCompletableFuture() throws Exception {
+        CompletableFuture<String> stage = new CompletableFuture<>();
+        CompletableFuture<Thread> threads = ExecutorTool.toCompletableFuture(stage)
+                .thenApplyAsync(ignored -> Thread.currentThread());
+        stage.complete("done");
+
+        Thread thread = threads.get(10, TimeUnit.SECONDS);
+        assertThat(ThreadTool.isVirtual(thread)).isEqualTo(ThreadTool.hasVirtualThreads());
+        assertThat(thread).isNotInstanceOf(ForkJoinWorkerThread.class);
+    }
+}
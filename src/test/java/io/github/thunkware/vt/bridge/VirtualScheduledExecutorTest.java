@@ -0,0 +1,110 @@
+package io.github.thunkware.vt.bridge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class VirtualScheduledExecutorTest {
+
+    private final ScheduledExecutorService executor = ExecutorTool.newVirtualScheduledExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSchedule() throws Exception {
+        long start = System.nanoTime();
+        ScheduledFuture<Boolean> future = executor.schedule(
+                () -> ThreadTool.hasVirtualThreads() == ThreadTool.isVirtual(), 50, TimeUnit.MILLISECONDS);
+
+        assertThat(future.getDelay(TimeUnit.MILLISECONDS)).isPositive();
+        assertThat(future.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    void testCancel() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = executor.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+
+        assertThat(future.cancel(false)).isTrue();
+        Thread.sleep(100);
+        assertThat(runs).hasValue(0);
+        assertThat(future.isCancelled()).isTrue();
+    }
+
+    @Test
+    void testFixedRate() throws Exception {
+        CountDownLatch latch = new CountDownLatch(5);
+        ScheduledFuture<?> future = executor.scheduleAtFixedRate(latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.cancel(false)).isTrue();
+        assertThat(future.isDone()).isTrue();
+    }
+
+    @Test
+    void testFixedDelayNeverOverlaps() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(5);
+        executor.scheduleWithFixedDelay(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            latch.countDown();
+        }, 0, 1, TimeUnit.MILLISECONDS);
+
+        assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning).hasValue(1);
+    }
+
+    @Test
+    void testShutdown() throws Exception {
+        CountDownLatch delayed = new CountDownLatch(1);
+        AtomicInteger periodicRuns = new AtomicInteger();
+        executor.schedule(delayed::countDown, 50, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> periodic = executor.scheduleAtFixedRate(periodicRuns::incrementAndGet, 50, 10,
+                TimeUnit.MILLISECONDS);
+
+        executor.shutdown();
+        assertThat(executor.isShutdown()).isTrue();
+        assertThat(executor.isTerminated()).isFalse();
+        assertThatExceptionOfType(RejectedExecutionException.class)
+                .isThrownBy(() -> executor.schedule(() -> { }, 0, TimeUnit.MILLISECONDS));
+
+        // delayed tasks still run, periodic ones are cancelled
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.isTerminated()).isTrue();
+        assertThat(delayed.getCount()).isZero();
+        assertThat(periodic.isCancelled()).isTrue();
+        assertThat(periodicRuns).hasValue(0);
+    }
+
+    @Test
+    void testShutdownNow() throws Exception {
+        Runnable task = () -> { };
+        ScheduledFuture<?> future = executor.schedule(task, 1, TimeUnit.HOURS);
+
+        List<Runnable> unstarted = executor.shutdownNow();
+        assertThat(unstarted).containsExactly((Runnable) future);
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+}